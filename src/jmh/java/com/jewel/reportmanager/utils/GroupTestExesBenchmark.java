@@ -0,0 +1,102 @@
+package com.jewel.reportmanager.utils;
+
+import com.jewel.reportmanager.dto.SuiteRunTestExeStats;
+import com.jewel.reportmanager.dto.TestExeSummaryDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suite run report stats of a page of suites: ReportUtils.groupTestExesByS_run_id against the scan
+ * of the whole test exe list per suite it replaced. Run with mvn -Pjmh verify.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupTestExesBenchmark {
+
+    private static final String[] STATUSES = {"PASS", "FAIL", "EXE", "ERR", "INFO", "WARN"};
+
+    @Param("100")
+    private int suites;
+
+    @Param("20000")
+    private int testExes;
+
+    private List<String> sRunIds;
+    private List<TestExeSummaryDto> testExeList;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        sRunIds = new ArrayList<>(suites);
+        for (int i = 0; i < suites; i++) {
+            sRunIds.add("S" + i);
+        }
+        testExeList = new ArrayList<>(testExes);
+        for (int i = 0; i < testExes; i++) {
+            TestExeSummaryDto testExe = new TestExeSummaryDto();
+            testExe.setS_run_id(sRunIds.get(random.nextInt(suites)));
+            testExe.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            testExe.setInvoke_user("user" + random.nextInt(10));
+            testExe.setRun_type("WEB");
+            testExe.setRun_mode("LOCAL");
+            testExeList.add(testExe);
+        }
+    }
+
+    @Benchmark
+    public void groupByS_run_id(Blackhole blackhole) {
+        Map<String, SuiteRunTestExeStats> stats = ReportUtils.groupTestExesByS_run_id(testExeList);
+        for (String sRunId : sRunIds) {
+            blackhole.consume(stats.getOrDefault(sRunId, new SuiteRunTestExeStats()));
+        }
+    }
+
+    @Benchmark
+    public void scanPerSuite(Blackhole blackhole) {
+        for (String sRunId : sRunIds) {
+            Map<String, Long> statusMap = new HashMap<>();
+            Set<String> users = new HashSet<>();
+            for (String status : STATUSES) {
+                statusMap.put(status, 0L);
+            }
+            long totalCount = 0L;
+            for (TestExeSummaryDto testExe : testExeList) {
+                if (!testExe.getS_run_id().equals(sRunId)) {
+                    continue;
+                }
+                if (testExe.getInvoke_user() != null) {
+                    users.add(testExe.getInvoke_user());
+                }
+                String status = testExe.getStatus().toUpperCase();
+                statusMap.put(status, statusMap.get(status) + 1);
+                totalCount++;
+            }
+            blackhole.consume(statusMap);
+            blackhole.consume(users);
+            blackhole.consume(totalCount);
+        }
+    }
+}
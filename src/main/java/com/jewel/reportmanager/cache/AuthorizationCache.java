@@ -0,0 +1,198 @@
+package com.jewel.reportmanager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jewel.reportmanager.dto.ProjectRoleDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of project access checks made against the project manager.
+ * <p>
+ * Project roles are cached per (pid, username, status) and project pid lookups per
+ * (pid, scope, qualifier, status), where scope is the kind of list lookup and qualifier its
+ * username or company. Found entries live for cache.authorization.ttl-ms, not found entries
+ * (404 / pid not in the returned list) for the shorter cache.authorization.negative-ttl-ms.
+ * <p>
+ * Stats are published as cache.* metrics with cache=projectRole and cache=projectAccess.
+ */
+@Slf4j
+@Service
+public class AuthorizationCache {
+
+    public static final String ROLE_SCOPE = "role";
+    public static final String COMPANY_SCOPE = "company";
+    public static final String STATUS_SCOPE = "status";
+
+    private final boolean enabled;
+    private final Cache<RoleKey, Optional<ProjectRoleDto>> roleCache;
+    private final Cache<AccessKey, Boolean> accessCache;
+
+    public AuthorizationCache(@Value("${cache.authorization.enabled:true}") boolean enabled,
+                              @Value("${cache.authorization.ttl-ms:300000}") long ttl,
+                              @Value("${cache.authorization.negative-ttl-ms:30000}") long negativeTtl,
+                              @Value("${cache.authorization.max-size:50000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.roleCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PositiveNegativeExpiry<RoleKey, Optional<ProjectRoleDto>>(Optional::isPresent, ttl, negativeTtl))
+                .recordStats()
+                .build();
+        this.accessCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PositiveNegativeExpiry<AccessKey, Boolean>(Boolean::booleanValue, ttl, negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, roleCache, "projectRole");
+        CaffeineCacheMetrics.monitor(meterRegistry, accessCache, "projectAccess");
+    }
+
+    /**
+     * Returns the cached project role for pid, username and status, loading it with loader on a
+     * miss. A null role is cached as a negative entry.
+     *
+     * @param pid
+     * @param username
+     * @param status
+     * @param loader
+     * @return ProjectRoleDto
+     */
+    public ProjectRoleDto getProjectRole(Long pid, String username, String status, Supplier<ProjectRoleDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return roleCache.get(new RoleKey(pid, username, status), key -> Optional.ofNullable(loader.get())).orElse(null);
+    }
+
+    /**
+     * Returns the pid(s) of pids that pass the scope lookup for qualifier and status. Cached
+     * pid(s) are answered from the cache, the rest are fetched with a single loader call and
+     * every one of them is cached as found or not found.
+     *
+     * @param scope
+     * @param qualifier
+     * @param status
+     * @param pids
+     * @param loader
+     * @return List<Long>
+     */
+    public List<Long> filterPids(String scope, String qualifier, String status, List<Long> pids,
+                                 Function<List<Long>, List<Long>> loader) {
+        if (!enabled) {
+            return loader.apply(pids);
+        }
+        Map<Long, AccessKey> keys = new LinkedHashMap<>();
+        for (Long pid : pids) {
+            keys.put(pid, new AccessKey(pid, scope, qualifier, status));
+        }
+        Map<AccessKey, Boolean> cached = accessCache.getAllPresent(keys.values());
+        List<Long> missing = new ArrayList<>();
+        for (Map.Entry<Long, AccessKey> entry : keys.entrySet()) {
+            if (!cached.containsKey(entry.getValue())) {
+                missing.add(entry.getKey());
+            }
+        }
+        Set<Long> loaded = Collections.emptySet();
+        if (!missing.isEmpty()) {
+            List<Long> result = loader.apply(missing);
+            loaded = result == null ? Collections.emptySet() : new HashSet<>(result);
+            Map<AccessKey, Boolean> preload = new HashMap<>();
+            for (Long pid : missing) {
+                preload.put(keys.get(pid), loaded.contains(pid));
+            }
+            accessCache.putAll(preload);
+        }
+        List<Long> pidList = new ArrayList<>();
+        for (Map.Entry<Long, AccessKey> entry : keys.entrySet()) {
+            if (Boolean.TRUE.equals(cached.get(entry.getValue())) || loaded.contains(entry.getKey())) {
+                pidList.add(entry.getKey());
+            }
+        }
+        return pidList;
+    }
+
+    /**
+     * Drops every cached role and role pid lookup of username, e.g. after the roles of the user changed.
+     *
+     * @param username
+     */
+    public void invalidateUser(String username) {
+        roleCache.asMap().keySet().removeIf(key -> key.username.equals(username));
+        accessCache.asMap().keySet().removeIf(key -> ROLE_SCOPE.equals(key.scope) && key.qualifier.equals(username));
+        log.info("Authorization cache invalidated for username: {}", username);
+    }
+
+    /**
+     * Drops every cached entry of pid, e.g. after its members or status changed.
+     *
+     * @param pid
+     */
+    public void invalidateProject(Long pid) {
+        roleCache.asMap().keySet().removeIf(key -> key.pid.equals(pid));
+        accessCache.asMap().keySet().removeIf(key -> key.pid.equals(pid));
+        log.info("Authorization cache invalidated for pid: {}", pid);
+    }
+
+    public void invalidateAll() {
+        roleCache.invalidateAll();
+        accessCache.invalidateAll();
+        log.info("Authorization cache invalidated");
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class RoleKey {
+        private final Long pid;
+        private final String username;
+        private final String status;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class AccessKey {
+        private final Long pid;
+        private final String scope;
+        private final String qualifier;
+        private final String status;
+    }
+
+    /**
+     * Expires found entries after ttl and not found entries after negativeTtl. Reads do not extend
+     * the lifetime of an entry.
+     */
+    @AllArgsConstructor
+    private static final class PositiveNegativeExpiry<K, V> implements Expiry<K, V> {
+        private final Predicate<V> found;
+        private final long ttl;
+        private final long negativeTtl;
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(found.test(value) ? ttl : negativeTtl);
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.jewel.reportmanager.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Disk tier of SuiteReportCache: snapshots are appended to segment files of segmentBytes that are
+ * memory-mapped, and an in-memory index keeps the segment, offset and length of each of them.
+ * A Location hands out read-only slices of the mapping, which are written to a response through a
+ * channel in small chunks, so serving a snapshot from disk does not copy it onto the heap as a whole.
+ * Locations count their hits, for the caller to decide when a snapshot is worth promoting.
+ * <p>
+ * Snapshots older than expireAfterMs, counted from when they were first built, are not returned.
+ * <p>
+ * Space is reclaimed a segment at a time: when a new segment would exceed maxBytes, the oldest one
+ * is deleted with the snapshots still in it. Slices handed out before stay readable, the mapping
+ * outlives the file until they are garbage collected.
+ *
+ * @param <K> key of a snapshot
+ */
+@Slf4j
+final class MappedReportStore<K> {
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final long expireAfterMs;
+    private final Map<K, Location> index = new ConcurrentHashMap<>();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long nextSegmentId;
+
+    /**
+     * Empties dir, which is created when missing.
+     *
+     * @param dir
+     * @param segmentBytes
+     * @param maxBytes
+     * @param expireAfterMs
+     * @throws IOException
+     */
+    MappedReportStore(Path dir, int segmentBytes, long maxBytes, long expireAfterMs) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = (int) Math.max(1, maxBytes / segmentBytes);
+        this.expireAfterMs = expireAfterMs;
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(MappedReportStore::deleteQuietly);
+        }
+    }
+
+    /**
+     * Returns where the snapshot of key is kept, or null when there is none or it has expired.
+     *
+     * @param key
+     * @return Location
+     */
+    Location get(K key) {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - location.createdAt >= expireAfterMs) {
+            index.remove(key, location);
+            return null;
+        }
+        return location;
+    }
+
+    /**
+     * Appends snapshot as the snapshot of key. Snapshots larger than a segment are not kept.
+     *
+     * @param key
+     * @param snapshot
+     * @param createdAt when the snapshot was built, in epoch millis
+     * @return false when the snapshot was not kept
+     */
+    synchronized boolean put(K key, byte[] snapshot, long createdAt) {
+        if (snapshot.length > segmentBytes) {
+            return false;
+        }
+        Segment segment = segments.peekLast();
+        try {
+            if (segment == null || segmentBytes - segment.position < snapshot.length) {
+                segment = newSegment();
+            }
+        } catch (IOException ex) {
+            log.warn("Suite report segment could not be created in {}: {}", dir, ex.getMessage());
+            return false;
+        }
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(segment.position);
+        buffer.put(snapshot);
+        Location location = new Location(segment, segment.position, snapshot.length, createdAt);
+        segment.position += snapshot.length;
+        segment.keys.add(key);
+        index.put(key, location);
+        return true;
+    }
+
+    /**
+     * Drops the snapshot of key, its space is reclaimed with its segment.
+     *
+     * @param key
+     */
+    void remove(K key) {
+        index.remove(key);
+    }
+
+    /**
+     * Drops the snapshots whose key matches predicate.
+     *
+     * @param predicate
+     */
+    void removeIf(Predicate<K> predicate) {
+        index.keySet().removeIf(predicate);
+    }
+
+    private Segment newSegment() throws IOException {
+        while (segments.size() >= maxSegments) {
+            Segment oldest = segments.removeFirst();
+            for (K key : oldest.keys) {
+                index.computeIfPresent(key, (k, location) -> location.segment == oldest ? null : location);
+            }
+            deleteQuietly(oldest.file);
+        }
+        Path file = dir.resolve("segment-" + nextSegmentId++);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        Segment segment = new Segment(file, buffer);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Suite report segment {} could not be deleted: {}", file, ex.getMessage());
+        }
+    }
+
+    private final class Segment {
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private final Set<K> keys = new HashSet<>();
+        private int position;
+
+        private Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    final class Location {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+        private final long createdAt;
+        private final AtomicInteger hits = new AtomicInteger();
+
+        private Location(Segment segment, int offset, int length, long createdAt) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.createdAt = createdAt;
+        }
+
+        long getCreatedAt() {
+            return createdAt;
+        }
+
+        /**
+         * @return the number of hits of the snapshot, this one included
+         */
+        int hit() {
+            return hits.incrementAndGet();
+        }
+
+        /**
+         * @return a read-only view of the snapshot in the mapping
+         */
+        ByteBuffer slice() {
+            ByteBuffer buffer = segment.buffer.asReadOnlyBuffer();
+            buffer.position(offset);
+            buffer.limit(offset + length);
+            return buffer.slice();
+        }
+    }
+
+}
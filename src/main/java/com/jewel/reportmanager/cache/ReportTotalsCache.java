@@ -0,0 +1,94 @@
+package com.jewel.reportmanager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jewel.reportmanager.dto.RuleApi;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totals of rule reports counted after their first page was returned (deferTotals), kept by the
+ * totalsId handed out with that page until cache.report-totals.ttl-ms, so they can be fetched
+ * again if the STOMP message was missed.
+ * <p>
+ * The last exact total of every rule report query is also kept, and given as an estimate
+ * (exact false) to the next deferred request with the same query. Hit, miss and eviction counts
+ * are published as cache.* metrics with cache=reportTotals under /actuator/metrics.
+ */
+@Service
+public class ReportTotalsCache {
+
+    private final Cache<String, Long> totals;
+    private final Cache<Key, Long> lastTotals;
+
+    public ReportTotalsCache(@Value("${cache.report-totals.ttl-ms:300000}") long ttl,
+                             @Value("${cache.report-totals.max-size:10000}") long maxSize,
+                             MeterRegistry meterRegistry) {
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        this.lastTotals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, totals, "reportTotals");
+    }
+
+    /**
+     * Returns the total counted for totalsId, or null while it is being counted or once expired.
+     *
+     * @param totalsId
+     * @return Long
+     */
+    public Long getTotal(String totalsId) {
+        return totals.getIfPresent(totalsId);
+    }
+
+    /**
+     * Returns the last exact total of the report query of payload, or null.
+     *
+     * @param payload
+     * @return Long
+     */
+    public Long getLastTotal(RuleApi payload) {
+        return lastTotals.getIfPresent(Key.of(payload));
+    }
+
+    /**
+     * Keeps total as the total of totalsId and as the last total of the report query of payload.
+     *
+     * @param totalsId
+     * @param payload
+     * @param total
+     */
+    public void put(String totalsId, RuleApi payload, long total) {
+        totals.put(totalsId, total);
+        lastTotals.put(Key.of(payload), total);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final long reportid;
+        private final List<Long> pids;
+        private final List<String> envs;
+        private final String startTime;
+        private final String endTime;
+
+        private static Key of(RuleApi payload) {
+            return new Key(payload.getReportid(), new ArrayList<>(payload.getProjectid()), new ArrayList<>(payload.getEnv()),
+                    payload.getStartTime(), payload.getEndTime());
+        }
+    }
+
+}
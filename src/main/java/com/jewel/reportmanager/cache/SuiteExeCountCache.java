@@ -0,0 +1,101 @@
+package com.jewel.reportmanager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of suite exe counts keyed by pid(s), env(s), start time and end time, so paging
+ * through a suite run report counts the suite exes once instead of on every page. A cached count
+ * is an estimate: suite exes inserted since it was loaded show up after cache.suite-exe-count.ttl-ms.
+ * <p>
+ * A count of 0 is never cached, so a first suite run shows up at once. Hit, miss and eviction
+ * counts are published as cache.* metrics with cache=suiteExeCount under /actuator/metrics.
+ */
+@Slf4j
+@Service
+public class SuiteExeCountCache {
+
+    private final boolean enabled;
+    private final Cache<Key, Long> cache;
+
+    public SuiteExeCountCache(@Value("${cache.suite-exe-count.enabled:true}") boolean enabled,
+                              @Value("${cache.suite-exe-count.ttl-ms:60000}") long ttl,
+                              @Value("${cache.suite-exe-count.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "suiteExeCount");
+    }
+
+    /**
+     * Returns the cached count for pids, envs, startTime and endTime, or null on a miss.
+     *
+     * @param pids
+     * @param envs
+     * @param startTime
+     * @param endTime
+     * @return Long
+     */
+    public Long getIfPresent(List<Long> pids, List<String> envs, long startTime, long endTime) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(new Key(new ArrayList<>(pids), new ArrayList<>(envs), startTime, endTime));
+    }
+
+    /**
+     * Caches count for pids, envs, startTime and endTime, unless it is null or 0.
+     *
+     * @param pids
+     * @param envs
+     * @param startTime
+     * @param endTime
+     * @param count
+     */
+    public void put(List<Long> pids, List<String> envs, long startTime, long endTime, Long count) {
+        if (!enabled || count == null || count == 0) {
+            return;
+        }
+        cache.put(new Key(new ArrayList<>(pids), new ArrayList<>(envs), startTime, endTime), count);
+    }
+
+    /**
+     * Drops every cached count that includes pid.
+     *
+     * @param pid
+     */
+    public void invalidateProject(Long pid) {
+        cache.asMap().keySet().removeIf(key -> key.pids.contains(pid));
+        log.info("Suite exe count cache invalidated for pid: {}", pid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("Suite exe count cache invalidated");
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final List<Long> pids;
+        private final List<String> envs;
+        private final long startTime;
+        private final long endTime;
+    }
+
+}
@@ -0,0 +1,329 @@
+package com.jewel.reportmanager.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.jewel.reportmanager.dto.Response;
+import com.jewel.reportmanager.dto.StepsDto;
+import com.jewel.reportmanager.utils.ETagUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshots of the execution reports (getRuleActionReportV3) of finished suites and of their test
+ * exes, keyed by the request parameters, the project role of the user and the version of the suite
+ * exe (test exe), its variance classifications, the classifications of its test exes (steps) and the
+ * column mappings of its project, so a report is built once and served from the snapshot until its
+ * data changes. The version is taken from stored data only, so it is the same on every instance and
+ * across restarts; invalidating (see CacheService) only frees the snapshots early.
+ * <p>
+ * A snapshot is the gzipped JSON of the Response, so it cannot be changed by the request it is
+ * served to and can be written to the response as is, see ReportSnapshotUtils. Snapshots are weighed
+ * by their size: at most cache.suite-report.max-bytes are kept on the heap. With
+ * cache.suite-report.disk.enabled, snapshots evicted from the heap go to memory-mapped segment files
+ * in cache.suite-report.disk.dir (see MappedReportStore). Disk hits are served from the mapping as
+ * they are; a snapshot is promoted back to the heap only on its cache.suite-report.disk.promote-hits
+ * disk hit, so one-off reads do not evict (and spill) the heap snapshots. Snapshots expire
+ * cache.suite-report.ttl-ms after they were built, on either tier, as a safety net for changes that
+ * are missed. Hit, miss and eviction counts of the heap tier are published as cache.* metrics with
+ * cache=suiteReport under /actuator/metrics.
+ * <p>
+ * The steps of test exes of finished suites are kept as well under the key of their step report,
+ * weighed by their estimated heap size with at most cache.suite-report.steps.max-bytes kept, so
+ * paging the step report or expanding a step does not download every step again (see
+ * RuleService.getStepPage).
+ */
+@Slf4j
+@Service
+public class SuiteReportCache {
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Snapshot> cache;
+    private final Cache<Key, StepsDto> steps;
+    private final MappedReportStore<Key> diskStore;
+    private final int promoteHits;
+
+    public SuiteReportCache(@Value("${cache.suite-report.enabled:true}") boolean enabled,
+                            @Value("${cache.suite-report.max-bytes:67108864}") long maxBytes,
+                            @Value("${cache.suite-report.ttl-ms:3600000}") long ttlMs,
+                            @Value("${cache.suite-report.disk.enabled:false}") boolean diskEnabled,
+                            @Value("${cache.suite-report.disk.dir:${java.io.tmpdir}/reportmanager/suite-report}") String diskDir,
+                            @Value("${cache.suite-report.disk.max-bytes:1073741824}") long diskMaxBytes,
+                            @Value("${cache.suite-report.disk.segment-bytes:67108864}") int diskSegmentBytes,
+                            @Value("${cache.suite-report.disk.promote-hits:3}") int promoteHits,
+                            @Value("${cache.suite-report.steps.max-bytes:33554432}") long stepsMaxBytes,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.promoteHits = promoteHits;
+        this.diskStore = diskEnabled ? createDiskStore(diskDir, diskSegmentBytes, diskMaxBytes, ttlMs) : null;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Snapshot snapshot) -> snapshot.bytes.length)
+                .expireAfter(new SnapshotExpiry(ttlMs))
+                .evictionListener(this::spill)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "suiteReport");
+        this.steps = Caffeine.newBuilder()
+                .maximumWeight(stepsMaxBytes)
+                .weigher((Key key, StepsDto stepsDto) -> weigh(stepsDto))
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, steps, "suiteReportSteps");
+    }
+
+    /**
+     * Returns the key of the execution report of a suite.
+     *
+     * @param s_run_id
+     * @param pid
+     * @param pageNo
+     * @param sort
+     * @param sortedColumn
+     * @param compact     whether the rows are in CompactTable form
+     * @param projectRole
+     * @param version
+     * @return Key
+     */
+    public static Key suiteReportKey(String s_run_id, long pid, Integer pageNo, Integer sort, String sortedColumn,
+                                     boolean compact, String projectRole, String version) {
+        return new Key(s_run_id, null, pid, pageNo, sort, sortedColumn, compact, projectRole, version);
+    }
+
+    /**
+     * Returns the key of the execution report of a test exe of a suite.
+     *
+     * @param s_run_id
+     * @param tc_run_id
+     * @param pid
+     * @param version
+     * @return Key
+     */
+    public static Key stepReportKey(String s_run_id, String tc_run_id, long pid, String version) {
+        return new Key(s_run_id, tc_run_id, pid, null, null, null, false, null, version);
+    }
+
+    /**
+     * Returns a read-only view of the gzipped JSON snapshot of key, or null when there is none.
+     *
+     * @param key
+     * @return ByteBuffer
+     */
+    public ByteBuffer get(Key key) {
+        if (!enabled) {
+            return null;
+        }
+        Snapshot snapshot = cache.getIfPresent(key);
+        if (snapshot == null) {
+            MappedReportStore<Key>.Location mapped = diskStore == null ? null : diskStore.get(key);
+            if (mapped == null) {
+                return null;
+            }
+            ByteBuffer slice = mapped.slice();
+            if (mapped.hit() < promoteHits) {
+                return slice;
+            }
+            byte[] bytes = new byte[slice.remaining()];
+            slice.get(bytes);
+            diskStore.remove(key);
+            snapshot = new Snapshot(bytes, mapped.getCreatedAt());
+            cache.put(key, snapshot);
+        }
+        return ByteBuffer.wrap(snapshot.bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Keeps a snapshot of response as the report of key.
+     *
+     * @param key
+     * @param response
+     * @return a read-only view of the gzipped JSON snapshot
+     */
+    public ByteBuffer put(Key key, Response response) {
+        byte[] snapshot = encode(response);
+        if (enabled) {
+            cache.put(key, new Snapshot(snapshot, System.currentTimeMillis()));
+        }
+        return ByteBuffer.wrap(snapshot).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the steps kept under the step report key, calling loader on a miss. The steps are
+     * shared by every caller, so they must not be modified.
+     *
+     * @param key    see stepReportKey
+     * @param loader
+     * @return StepsDto, null when loader returns null
+     */
+    public StepsDto getSteps(Key key, Supplier<StepsDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return steps.get(key, k -> loader.get());
+    }
+
+    /**
+     * Drops every snapshot of s_run_id and of its test exes.
+     *
+     * @param s_run_id
+     */
+    public void invalidate(String s_run_id) {
+        invalidateIf(key -> key.s_run_id.equals(s_run_id));
+        log.info("Suite report cache invalidated for s_run_id: {}", s_run_id);
+    }
+
+    /**
+     * Drops every snapshot of a suite of pid.
+     *
+     * @param pid
+     */
+    public void invalidateProject(Long pid) {
+        invalidateIf(key -> key.pid == pid);
+        log.info("Suite report cache invalidated for pid: {}", pid);
+    }
+
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+        log.info("Suite report cache invalidated");
+    }
+
+    private void invalidateIf(Predicate<Key> predicate) {
+        cache.asMap().keySet().removeIf(predicate);
+        steps.asMap().keySet().removeIf(predicate);
+        if (diskStore != null) {
+            diskStore.removeIf(predicate);
+        }
+    }
+
+    private void spill(Key key, Snapshot snapshot, RemovalCause cause) {
+        if (diskStore != null && key != null && snapshot != null && cause == RemovalCause.SIZE) {
+            diskStore.put(key, snapshot.bytes, snapshot.createdAt);
+        }
+    }
+
+    /**
+     * Estimated heap size of steps as read from JSON, maps, lists and strings included.
+     */
+    private static int weigh(StepsDto stepsDto) {
+        return (int) Math.min(Integer.MAX_VALUE, 64 + sizeOf(stepsDto.getSteps()));
+    }
+
+    private static long sizeOf(Object value) {
+        if (value instanceof Map) {
+            long bytes = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += 32 + sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof Collection) {
+            long bytes = 24;
+            for (Object item : (Collection<?>) value) {
+                bytes += 8 + sizeOf(item);
+            }
+            return bytes;
+        }
+        if (value instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) value).length();
+        }
+        return value == null ? 0 : 16;
+    }
+
+    private byte[] encode(Response response) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, response);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MappedReportStore<Key> createDiskStore(String dir, int segmentBytes, long maxBytes, long ttlMs) {
+        try {
+            return new MappedReportStore<>(Paths.get(dir), segmentBytes, maxBytes, ttlMs);
+        } catch (IOException ex) {
+            log.warn("Suite report disk cache disabled, {} is not usable: {}", dir, ex.getMessage());
+            return null;
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Snapshot {
+        private final byte[] bytes;
+        private final long createdAt;
+    }
+
+    /**
+     * Expires a snapshot ttlMs after it was built, so promoting it back from disk does not extend
+     * its life.
+     */
+    @AllArgsConstructor
+    private static final class SnapshotExpiry implements Expiry<Key, Snapshot> {
+        private final long ttlMs;
+
+        @Override
+        public long expireAfterCreate(Key key, Snapshot snapshot, long currentTime) {
+            long age = System.currentTimeMillis() - snapshot.createdAt;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMs - age));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Snapshot snapshot, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, snapshot, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Snapshot snapshot, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @EqualsAndHashCode
+    public static final class Key {
+        private final String s_run_id;
+        private final String tc_run_id;
+        private final long pid;
+        private final Integer pageNo;
+        private final Integer sort;
+        private final String sortedColumn;
+        private final boolean compact;
+        private final String projectRole;
+        private final String version;
+
+        /**
+         * @return the strong ETag of the report of this key
+         */
+        public String getETag() {
+            return ETagUtils.strongETag("ruleAction", s_run_id, tc_run_id, pid, pageNo, sort, sortedColumn, compact,
+                    projectRole, version);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.jewel.reportmanager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jewel.reportmanager.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-process cache of user details resolved from the user manager, keyed by username and the
+ * expiry of the token the request was made with, so a fresh login always reloads the user.
+ * <p>
+ * Entries are evicted by size and after cache.user.ttl-ms. Hit, miss and eviction counts are
+ * published as cache.* metrics with cache=user under /actuator/metrics.
+ */
+@Slf4j
+@Service
+public class UserCache {
+
+    private final boolean enabled;
+    private final Cache<Key, UserDto> cache;
+
+    public UserCache(@Value("${cache.user.enabled:true}") boolean enabled,
+                     @Value("${cache.user.ttl-ms:300000}") long ttl,
+                     @Value("${cache.user.max-size:10000}") long maxSize,
+                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user");
+    }
+
+    /**
+     * Returns the cached user for username and tokenExpiry, loading it with loader on a miss.
+     * A null result from the loader is not cached.
+     *
+     * @param username
+     * @param tokenExpiry
+     * @param loader
+     * @return UserDto
+     */
+    public UserDto get(String username, long tokenExpiry, Function<String, UserDto> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        return cache.get(new Key(username, tokenExpiry), key -> loader.apply(key.username));
+    }
+
+    /**
+     * Drops every cached entry of username, whatever token it was loaded with.
+     *
+     * @param username
+     */
+    public void invalidate(String username) {
+        cache.asMap().keySet().removeIf(key -> key.username.equals(username));
+        log.info("User cache invalidated for username: {}", username);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("User cache invalidated");
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String username;
+        private final long tokenExpiry;
+    }
+
+}
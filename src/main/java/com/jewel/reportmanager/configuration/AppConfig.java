@@ -5,6 +5,7 @@ import com.jewel.reportmanager.service.JwtHelperService;
 import org.apache.catalina.connector.Connector;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
@@ -18,13 +19,15 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @EnableWebSecurity
 @EnableAsync
@@ -86,16 +89,66 @@ public class AppConfig {
         return executor;
     }
 
-    //password decode
+    /**
+     * Executor for independent upstream calls made while building a report. When the queue is
+     * full the calling request thread runs the call itself instead of failing the report.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public Executor restCallExecutor(@Value("${rest.executor.core-pool-size:16}") int corePoolSize,
+                                     @Value("${rest.executor.max-pool-size:64}") int maxPoolSize,
+                                     @Value("${rest.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("restCall-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(AppConfig::withRequestAttributes);
+        executor.initialize();
+        return executor;
     }
+
+    /**
+     * Executor for the per-group evaluation of a report page (see AsyncUtils.mapBounded). Kept apart
+     * from restCallExecutor because a group blocks on the upstream calls it starts there. When the
+     * queue is full a group is rejected and shown as timed out, it never runs on the request thread.
+     */
     @Bean
-    public RestTemplate getRestTemplate(){
-        return new RestTemplate();
+    public Executor reportGroupExecutor(@Value("${report.group-executor.pool-size:16}") int poolSize,
+                                        @Value("${report.group-executor.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("reportGroup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(AppConfig::withRequestAttributes);
+        executor.initialize();
+        return executor;
     }
 
+    /**
+     * Runs the task with the request attributes of the submitting thread, so request-scoped state
+     * (see RequestMemoUtils) is shared with the calls it fans out.
+     */
+    private static Runnable withRequestAttributes(Runnable task) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return () -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                task.run();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        };
+    }
+
+    //password decode
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
     @Bean
     public ModelMapper modelMapper() {
         return new ModelMapper();
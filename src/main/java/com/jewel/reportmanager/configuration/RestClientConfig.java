@@ -0,0 +1,124 @@
+package com.jewel.reportmanager.configuration;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP clients for the user, project and insertion manager services.
+ * <p>
+ * All RestTemplates share one pooled, keep-alive Apache HttpClient so connections to a downstream
+ * service are reused across requests. Each downstream service gets its own RestTemplate so its
+ * connect, read and pool-wait timeouts can be tuned independently.
+ */
+@Configuration
+public class RestClientConfig {
+
+    /**
+     * Responses are decoded straight into typed DTOs. Untyped numbers (inside Map/Object fields) are
+     * read as Long rather than Integer so callers can treat ids and timestamps uniformly.
+     */
+    private static final MappingJackson2HttpMessageConverter JSON_CONVERTER = new MappingJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder.json()
+                    .featuresToEnable(DeserializationFeature.USE_LONG_FOR_INTS)
+                    .build());
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager restConnectionManager(
+            @Value("${rest.client.pool.max-total:200}") int maxTotal,
+            @Value("${rest.client.pool.max-per-route:50}") int maxPerRoute,
+            @Value("${rest.client.pool.validate-after-inactivity-ms:2000}") int validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivity);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient restHttpClient(PoolingHttpClientConnectionManager restConnectionManager,
+                                              @Value("${rest.client.pool.keep-alive-ms:30000}") long keepAlive,
+                                              @Value("${rest.client.pool.idle-eviction-ms:60000}") long idleEviction) {
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+        };
+        return HttpClients.custom()
+                .setConnectionManager(restConnectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction, TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(CloseableHttpClient restHttpClient,
+                                     @Value("${rest.client.default.connect-timeout-ms:2000}") int connectTimeout,
+                                     @Value("${rest.client.default.read-timeout-ms:30000}") int readTimeout,
+                                     @Value("${rest.client.default.pool-timeout-ms:2000}") int poolTimeout) {
+        return createRestTemplate(restHttpClient, connectTimeout, readTimeout, poolTimeout);
+    }
+
+    @Bean
+    public RestTemplate userManagerRestTemplate(CloseableHttpClient restHttpClient,
+                                                @Value("${rest.client.user.connect-timeout-ms:2000}") int connectTimeout,
+                                                @Value("${rest.client.user.read-timeout-ms:5000}") int readTimeout,
+                                                @Value("${rest.client.user.pool-timeout-ms:2000}") int poolTimeout) {
+        return createRestTemplate(restHttpClient, connectTimeout, readTimeout, poolTimeout);
+    }
+
+    @Bean
+    public RestTemplate projectManagerRestTemplate(CloseableHttpClient restHttpClient,
+                                                   @Value("${rest.client.project.connect-timeout-ms:2000}") int connectTimeout,
+                                                   @Value("${rest.client.project.read-timeout-ms:5000}") int readTimeout,
+                                                   @Value("${rest.client.project.pool-timeout-ms:2000}") int poolTimeout) {
+        return createRestTemplate(restHttpClient, connectTimeout, readTimeout, poolTimeout);
+    }
+
+    @Bean
+    public RestTemplate insertionManagerRestTemplate(CloseableHttpClient restHttpClient,
+                                                     @Value("${rest.client.insertion.connect-timeout-ms:2000}") int connectTimeout,
+                                                     @Value("${rest.client.insertion.read-timeout-ms:30000}") int readTimeout,
+                                                     @Value("${rest.client.insertion.pool-timeout-ms:2000}") int poolTimeout) {
+        return createRestTemplate(restHttpClient, connectTimeout, readTimeout, poolTimeout);
+    }
+
+    /**
+     * Publishes leased, pending, available and max connection gauges as httpcomponents.httpclient.pool.*
+     * under /actuator/metrics.
+     */
+    @Bean
+    public MeterBinder restConnectionPoolMetrics(PoolingHttpClientConnectionManager restConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(restConnectionManager, "reportmanager-rest");
+    }
+
+    private static RestTemplate createRestTemplate(CloseableHttpClient httpClient, int connectTimeout,
+                                                   int readTimeout, int poolTimeout) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        requestFactory.setConnectionRequestTimeout(poolTimeout);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getMessageConverters().removeIf(MappingJackson2HttpMessageConverter.class::isInstance);
+        restTemplate.getMessageConverters().add(JSON_CONVERTER);
+        return restTemplate;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.jewel.reportmanager.configuration.filters;
 
 import com.jewel.reportmanager.service.JwtHelperService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -33,9 +34,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String jwtToken = "";
         if (reqToken != null && reqToken.startsWith("Bearer ")) {
             jwtToken = reqToken.substring(7);
-            String username = jwtHelperService.getUserNameFromJwtToken(jwtToken);
+            Claims claims = jwtHelperService.getClaimsFromJwtToken(jwtToken);
+            String username = claims.getSubject();
             GrantedAuthority authority = new SimpleGrantedAuthority(username);
             UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(username, jwtToken, Arrays.asList(authority));
+            // token expiry is part of the user cache key, see ReportUtils.getUserDtoFromServetRequest
+            auth.setDetails(claims);
             SecurityContextHolder.getContext().setAuthentication(auth);
             filterChain.doFilter(request, response);
         } else {
@@ -0,0 +1,67 @@
+package com.jewel.reportmanager.controller;
+
+import com.jewel.reportmanager.dto.Response;
+import com.jewel.reportmanager.exception.CustomDataException;
+import com.jewel.reportmanager.service.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@Validated
+@RestController
+public class CacheController {
+
+    @Autowired
+    private CacheService cacheService;
+
+    @DeleteMapping(path = "/v1/cache/user", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> evictUserCache(@RequestParam(value = "username", required = false) final String username) {
+        try {
+            return ResponseEntity.ok(cacheService.evictUserCache(username));
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType()));
+        }
+    }
+
+    @DeleteMapping(path = "/v1/cache/authorization", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> evictAuthorizationCache(@RequestParam(value = "username", required = false) final String username,
+                                                            @RequestParam(value = "pid", required = false) final Long pid) {
+        try {
+            return ResponseEntity.ok(cacheService.evictAuthorizationCache(username, pid));
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType()));
+        }
+    }
+
+    @DeleteMapping(path = "/v1/cache/suiteSummary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> evictSuiteSummaryBuckets(@RequestParam(value = "reportName", required = false) final String reportName,
+                                                             @RequestParam(value = "pid", required = false) final Long pid) {
+        try {
+            return ResponseEntity.ok(cacheService.evictSuiteSummaryBuckets(reportName, pid));
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType()));
+        }
+    }
+
+    @DeleteMapping(path = "/v1/cache/suiteExeCount", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> evictSuiteExeCountCache(@RequestParam(value = "pid", required = false) final Long pid) {
+        try {
+            return ResponseEntity.ok(cacheService.evictSuiteExeCountCache(pid));
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType()));
+        }
+    }
+
+    @DeleteMapping(path = "/v1/cache/suiteReport", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> evictSuiteReportCache(@RequestParam(value = "s_run_id", required = false) final String s_run_id,
+                                                          @RequestParam(value = "pid", required = false) final Long pid) {
+        try {
+            return ResponseEntity.ok(cacheService.evictSuiteReportCache(s_run_id, pid));
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType()));
+        }
+    }
+
+}
@@ -1,21 +1,31 @@
 package com.jewel.reportmanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jewel.reportmanager.dto.Response;
 import com.jewel.reportmanager.dto.RuleApiDto;
 import com.jewel.reportmanager.dto.RuleApi;
 import com.jewel.reportmanager.exception.CustomDataException;
 import com.jewel.reportmanager.service.RuleService;
+import com.jewel.reportmanager.utils.CompactTable;
+import com.jewel.reportmanager.utils.ETagUtils;
+import com.jewel.reportmanager.utils.NdjsonReportRowWriter;
+import com.jewel.reportmanager.utils.ReportSnapshotUtils;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.Map;
 
@@ -27,28 +37,111 @@ public class RuleController {
     private RuleService ruleService;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @PostMapping(path = "/v1/rule", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Response> getRuleReport(@RequestBody @Valid final RuleApiDto payload,
                                                   @RequestParam(value = "pageNo", required = false) final Integer pageNo,
+                                                  @RequestParam(value = "cursor", required = false) final String cursor,
                                                   @RequestParam(value = "sort", required = false) final Integer sort,
-                                                  @RequestParam(value = "sortedColumn", required = false) final String sortedColumn) throws ParseException {
+                                                  @RequestParam(value = "sortedColumn", required = false) final String sortedColumn,
+                                                  @RequestParam(value = "deferTotals", required = false, defaultValue = "false") final boolean deferTotals,
+                                                  @RequestParam(value = "format", required = false) final String format) throws ParseException {
         try {
             RuleApi ruleApi = modelMapper.map(payload, RuleApi.class);
-            return ResponseEntity.ok(ruleService.getRuleReport(ruleApi, pageNo, sort, sortedColumn));
+            return ResponseEntity.ok(ruleService.getRuleReport(ruleApi, pageNo, cursor, sort, sortedColumn, deferTotals, format));
         } catch (CustomDataException ex) {
             return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType()));
         }
     }
 
+    /**
+     * Same report as getRuleReport for Accept: application/x-ndjson, written row by row as it is
+     * computed, see NdjsonReportRowWriter.
+     */
+    @PostMapping(path = "/v1/rule", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamRuleReport(@RequestBody @Valid final RuleApiDto payload,
+                                 @RequestParam(value = "pageNo", required = false) final Integer pageNo,
+                                 @RequestParam(value = "cursor", required = false) final String cursor,
+                                 @RequestParam(value = "sort", required = false) final Integer sort,
+                                 @RequestParam(value = "sortedColumn", required = false) final String sortedColumn,
+                                 @RequestParam(value = "deferTotals", required = false, defaultValue = "false") final boolean deferTotals,
+                                 final HttpServletResponse response) throws ParseException, IOException {
+        RuleApi ruleApi = modelMapper.map(payload, RuleApi.class);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        NdjsonReportRowWriter rows = new NdjsonReportRowWriter(response.getOutputStream(), objectMapper);
+        try {
+            rows.end(ruleService.getRuleReport(ruleApi, pageNo, cursor, sort, sortedColumn, deferTotals, rows), false);
+        } catch (CustomDataException ex) {
+            if (!rows.isStarted()) {
+                response.setStatus(ex.getHttpStatus().value());
+            }
+            rows.end(new Response(ex.getData(), ex.getMessage(), ex.getOperationType()), true);
+        }
+    }
+
+    @GetMapping(path = "/v1/rule/totals", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> getRuleReportTotal(@RequestParam(value = "totalsId") @NotBlank final String totalsId) {
+        return ResponseEntity.ok(ruleService.getRuleReportTotal(totalsId));
+    }
+
     @GetMapping(path = "/v3/rule/action", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Response> getRuleActionReportV3(@RequestParam(required = false) final String s_run_id,
                                                           @RequestParam(required = false) final String tc_run_id, HttpServletRequest request,
                                                           @RequestParam(value = "pageNo", required = false) final Integer pageNo,
                                                           @RequestParam(value = "sort", required = false) final Integer sort,
-                                                          @RequestParam(value = "sortedColumn", required = false) final String sortedColumn) {
+                                                          @RequestParam(value = "sortedColumn", required = false) final String sortedColumn,
+                                                          @RequestParam(value = "format", required = false) final String format,
+                                                          final HttpServletResponse servletResponse) throws IOException {
+        try {
+            boolean compact = CompactTable.isCompact(format);
+            String eTag = ruleService.getRuleActionReportETag(s_run_id, tc_run_id, pageNo, sort, sortedColumn, compact);
+            if (ETagUtils.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            ByteBuffer snapshot = ruleService.getRuleActionReportSnapshot(s_run_id, tc_run_id, pageNo, sort, sortedColumn, compact);
+            if (snapshot != null) {
+                // already written, a null ResponseEntity leaves the response as it is
+                ReportSnapshotUtils.write(snapshot, eTag, request, servletResponse);
+                return null;
+            }
+            Response response = ruleService.getRuleActionReportV3(s_run_id, tc_run_id, pageNo, sort, sortedColumn, compact);
+            return eTag == null ? ResponseEntity.ok(response) : ResponseEntity.ok().eTag(eTag).body(response);
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType(), ex.getSubOperationType()));
+        }
+    }
+
+    @GetMapping(path = "/v3/rule/action/steps", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> getStepPage(@RequestParam(value = "tc_run_id") @NotBlank final String tc_run_id,
+                                                @RequestParam(value = "offset", required = false, defaultValue = "0") final int offset,
+                                                @RequestParam(value = "cursor", required = false) final String cursor,
+                                                @RequestParam(value = "pageSize", required = false, defaultValue = "100") final int pageSize) {
+        try {
+            return ResponseEntity.ok(ruleService.getStepPage(tc_run_id, offset, cursor, pageSize));
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType(), ex.getSubOperationType()));
+        }
+    }
+
+    @GetMapping(path = "/v3/rule/action/subSteps", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> getSubSteps(@RequestParam(value = "tc_run_id") @NotBlank final String tc_run_id,
+                                                @RequestParam(value = "stepIndex") final int stepIndex) {
+        try {
+            return ResponseEntity.ok(ruleService.getSubSteps(tc_run_id, stepIndex));
+        } catch (CustomDataException ex) {
+            return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType(), ex.getSubOperationType()));
+        }
+    }
+
+    @GetMapping(path = "/v3/rule/action/gallery", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> getStepGallery(@RequestParam(value = "tc_run_id") @NotBlank final String tc_run_id,
+                                                   @RequestParam(value = "offset", required = false, defaultValue = "0") final int offset,
+                                                   @RequestParam(value = "cursor", required = false) final String cursor,
+                                                   @RequestParam(value = "pageSize", required = false, defaultValue = "100") final int pageSize) {
         try {
-            return ResponseEntity.ok(ruleService.getRuleActionReportV3(s_run_id, tc_run_id, pageNo, sort, sortedColumn));
+            return ResponseEntity.ok(ruleService.getStepGallery(tc_run_id, offset, cursor, pageSize));
         } catch (CustomDataException ex) {
             return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType(), ex.getSubOperationType()));
         }
@@ -90,10 +183,11 @@ public class RuleController {
                                                   @RequestParam(value = "category", required = false) final String category,
                                                   @RequestParam(value = "search", required = false) final String search,
                                                   @RequestParam(value = "pageNo", required = false) final Integer pageNo,
+                                                  @RequestParam(value = "cursor", required = false) final String cursor,
                                                   @RequestParam(value = "sort", required = false) final Integer sort,
                                                   @RequestParam(value = "sortedColumn", required = false) final String sortedColumn) throws ParseException {
         try {
-            return ResponseEntity.ok(ruleService.getSuiteTimeline(payload, request, category, search, pageNo, sort, sortedColumn));
+            return ResponseEntity.ok(ruleService.getSuiteTimeline(payload, request, category, search, pageNo, cursor, sort, sortedColumn));
         } catch (CustomDataException ex) {
             return ResponseEntity.status(ex.getHttpStatus()).body(new Response(ex.getData(), ex.getMessage(), ex.getOperationType(), ex.getSubOperationType()));
         }
@@ -0,0 +1,26 @@
+package com.jewel.reportmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.jewel.reportmanager.enums.OperationType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Response envelope returned by the user, project and insertion manager services. Decoding the
+ * envelope with a concrete data type lets Jackson bind the payload in a single pass.
+ *
+ * @param <T> type of the data field
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ApiResponse<T> {
+
+    private T data;
+    private String message;
+    private OperationType operation;
+    private String subOperationType;
+
+}
@@ -0,0 +1,25 @@
+package com.jewel.reportmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Position after the last row of a page: the value of the sorted column and the id of that row,
+ * for the sort it was made with. See PageCursorUtils.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageCursor {
+
+    private Integer sort;
+
+    private String sortedColumn;
+
+    private Object value;
+
+    private String id;
+}
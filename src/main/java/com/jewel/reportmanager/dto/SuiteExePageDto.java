@@ -0,0 +1,28 @@
+package com.jewel.reportmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A page of suite exes together with the total count of suite exes matching the query and the
+ * s_run_ids of the page, see RestApiUtils.getSuiteExePage.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuiteExePageDto {
+
+    private List<SuiteExeDto> results;
+
+    /**
+     * Null when the count was not asked for.
+     */
+    private Long count;
+
+    private List<String> s_run_ids;
+}
@@ -0,0 +1,28 @@
+package com.jewel.reportmanager.dto;
+
+import com.jewel.reportmanager.utils.StatusHistogram;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Status counts and users of the test exes of one suite run.
+ */
+@Getter
+@Setter
+public class SuiteRunTestExeStats {
+
+    private StatusHistogram statusHistogram = new StatusHistogram();
+
+    private Set<String> invokeUsers = new HashSet<>();
+
+    private Set<String> baseUsers = new HashSet<>();
+
+    private Set<String> tokenUsers = new HashSet<>();
+
+    private Set<String> runTypes = new HashSet<>();
+
+    private Set<String> runModes = new HashSet<>();
+}
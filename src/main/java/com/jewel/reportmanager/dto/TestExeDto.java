@@ -1,6 +1,6 @@
 package com.jewel.reportmanager.dto;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -89,10 +89,10 @@ public class TestExeDto {
     private ClassificationDetails classificationDetails;
     private Long varianceId;
 
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private List<Long> stepVarianceIds=new ArrayList<>();
 
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Long testcase_id;
 
 }
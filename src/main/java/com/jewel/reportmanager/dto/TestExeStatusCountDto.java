@@ -0,0 +1,24 @@
+package com.jewel.reportmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of test exes of a suite run with the same testcase name and status.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TestExeStatusCountDto {
+
+    private String s_run_id;
+
+    private String name;
+
+    private String status;
+
+    private long count;
+}
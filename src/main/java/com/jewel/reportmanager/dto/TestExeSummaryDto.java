@@ -0,0 +1,37 @@
+package com.jewel.reportmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Set;
+
+/**
+ * Projection of a test exe with only the fields needed to count statuses and list the users of a
+ * suite run. Steps, meta data and user defined data are skipped while decoding.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TestExeSummaryDto {
+
+    public static final String FIELDS = "s_run_id,name,status,run_type,run_mode,base_user,invoke_user,token_user";
+
+    private String s_run_id;
+
+    private String name;
+
+    private String status;
+
+    private String run_type;
+
+    private String run_mode;
+
+    private String base_user;
+
+    private String invoke_user;
+
+    private Set<String> token_user;
+}
@@ -0,0 +1,102 @@
+package com.jewel.reportmanager.entity;
+
+import com.jewel.reportmanager.utils.RunHistoryMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-aggregated suite exe history of one (pid, report name, env) for one day, or the merge of
+ * consecutive days. Everything the suite summary and suite diagnose reports need is kept as
+ * counts and the RunHistoryMetrics of its suite exes so buckets can be merged in time order, see
+ * SuiteSummaryUtils.
+ * <p>
+ * A bucket with suiteCount 0 records that the day was fetched and had no suite exe.
+ */
+@Getter
+@Setter
+@Document(collection = "suite_summary_bucket")
+@CompoundIndex(name = "report_bucket", def = "{'reportName': 1, 'pid': 1, 'env': 1, 'bucketStart': 1}")
+public class SuiteSummaryBucket {
+
+    @Id
+    private String id;
+
+    private Long pid;
+
+    private String projectName;
+
+    private String reportName;
+
+    private String env;
+
+    private long bucketStart;
+
+    private long bucketEnd;
+
+    private long suiteCount;
+
+    private Map<String, Long> suiteStatusCounts = new HashMap<>();
+
+    private long errSuiteCount;
+
+    private long falsePositiveSuiteCount;
+
+    private RunHistoryMetrics history = new RunHistoryMetrics();
+
+    /**
+     * Latest runs first, at most SuiteSummaryUtils.LAST_RUNS of them.
+     */
+    private List<SuiteRunRef> lastRuns = new ArrayList<>();
+
+    private List<TestCaseCount> testCaseCounts = new ArrayList<>();
+
+    private long testExeCount;
+
+    private long errTestExeCount;
+
+    private long failTestExeCount;
+
+    private long falsePositiveTestExeCount;
+
+    @Indexed(expireAfter = "7d")
+    private Date materializedAt;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SuiteRunRef {
+
+        private String s_run_id;
+
+        private long s_start_time;
+
+        private String status;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TestCaseCount {
+
+        private String name;
+
+        private long failCount;
+
+        private long totalCount;
+    }
+
+}
@@ -3,7 +3,11 @@ package com.jewel.reportmanager.repository;
 
 import com.jewel.reportmanager.entity.ColumnMapping;
 import com.jewel.reportmanager.enums.ColumnLevel;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
 
 public interface ColumnMappingRepository extends MongoRepository<ColumnMapping,Long> {
 
@@ -16,4 +20,7 @@ public interface ColumnMappingRepository extends MongoRepository<ColumnMapping,L
   ColumnMapping findByLevelAndNameIgnoreCaseAndIsDeleted(ColumnLevel framework, String framework1, boolean b);
 
   ColumnMapping findByLevelAndNameContainingIgnoreCaseAndIsDeleted(ColumnLevel framework, String framework1, boolean b);
+
+  @Query(value = "{ $or: [ { pid: ?0 }, { level: ?1 } ] }", fields = "{ pid: 1, level: 1, addedAt: 1, updatedAt: 1, isDeleted: 1 }")
+  List<ColumnMapping> findVersionsByPidOrLevel(Long pid, ColumnLevel level, Sort sort);
 }
@@ -0,0 +1,138 @@
+package com.jewel.reportmanager.service;
+
+import com.jewel.reportmanager.cache.AuthorizationCache;
+import com.jewel.reportmanager.cache.SuiteExeCountCache;
+import com.jewel.reportmanager.cache.SuiteReportCache;
+import com.jewel.reportmanager.cache.UserCache;
+import com.jewel.reportmanager.dto.Response;
+import com.jewel.reportmanager.dto.UserDto;
+import com.jewel.reportmanager.enums.UserRole;
+import com.jewel.reportmanager.exception.CustomDataException;
+import com.jewel.reportmanager.utils.ReportUtils;
+import com.jewel.reportmanager.utils.SuiteSummaryUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import static com.jewel.reportmanager.enums.OperationType.*;
+import static com.jewel.reportmanager.utils.ReportResponseConstants.*;
+
+@Slf4j
+@Service
+public class CacheService {
+
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private AuthorizationCache authorizationCache;
+    @Autowired
+    private SuiteExeCountCache suiteExeCountCache;
+    @Autowired
+    private SuiteReportCache suiteReportCache;
+
+    /**
+     * Evicts cached user details of username, or of every user when username is null.
+     * Only a super-admin can evict.
+     *
+     * @param username
+     * @return Response
+     */
+    public Response evictUserCache(String username) {
+        checkSuperAdmin();
+        if (username == null) {
+            userCache.invalidateAll();
+        } else {
+            userCache.invalidate(username);
+        }
+        return new Response(null, CACHE_EVICTED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Evicts cached project roles and project access of username and/or pid, or everything when
+     * both are null. Call after a role change so it takes effect before the entries expire.
+     * Only a super-admin can evict.
+     *
+     * @param username
+     * @param pid
+     * @return Response
+     */
+    public Response evictAuthorizationCache(String username, Long pid) {
+        checkSuperAdmin();
+        if (username == null && pid == null) {
+            authorizationCache.invalidateAll();
+        }
+        if (username != null) {
+            authorizationCache.invalidateUser(username);
+        }
+        if (pid != null) {
+            authorizationCache.invalidateProject(pid);
+        }
+        return new Response(null, CACHE_EVICTED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Drops the stored suite summary buckets of reportName and/or pid, or every bucket when both
+     * are null, e.g. after suite exes of past days were reclassified. They are rebuilt on the
+     * next suite summary / suite diagnose report. Only a super-admin can evict.
+     *
+     * @param reportName
+     * @param pid
+     * @return Response
+     */
+    public Response evictSuiteSummaryBuckets(String reportName, Long pid) {
+        checkSuperAdmin();
+        SuiteSummaryUtils.deleteBuckets(reportName, pid);
+        return new Response(null, CACHE_EVICTED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Drops the cached suite exe counts of pid, or every count when pid is null, so the suite run
+     * report counts again before the entries expire. Only a super-admin can evict.
+     *
+     * @param pid
+     * @return Response
+     */
+    public Response evictSuiteExeCountCache(Long pid) {
+        checkSuperAdmin();
+        if (pid == null) {
+            suiteExeCountCache.invalidateAll();
+        } else {
+            suiteExeCountCache.invalidateProject(pid);
+        }
+        return new Response(null, CACHE_EVICTED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Drops the report snapshots of s_run_id (and its test exes) and/or of the suites of pid, or
+     * every snapshot when both are null, e.g. after test exes or steps of a finished suite were
+     * changed by another service.
+     * Only a super-admin can evict.
+     *
+     * @param s_run_id
+     * @param pid
+     * @return Response
+     */
+    public Response evictSuiteReportCache(String s_run_id, Long pid) {
+        checkSuperAdmin();
+        if (s_run_id == null && pid == null) {
+            suiteReportCache.invalidateAll();
+        }
+        if (s_run_id != null) {
+            suiteReportCache.invalidate(s_run_id);
+        }
+        if (pid != null) {
+            suiteReportCache.invalidateProject(pid);
+        }
+        return new Response(null, CACHE_EVICTED_SUCCESSFULLY, Success);
+    }
+
+    private void checkSuperAdmin() {
+        UserDto user = ReportUtils.getUserDtoFromServetRequest();
+        if (!user.getRole().equalsIgnoreCase(UserRole.SUPER_ADMIN.toString())) {
+            log.error("User does not have super-admin access. User: {}", user.getUsername());
+            throw new CustomDataException(USER_DOES_NOT_HAVE_SUPER_ADMIN_ACCESS, null, Failure, HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+}
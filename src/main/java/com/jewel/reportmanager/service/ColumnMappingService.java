@@ -1,5 +1,6 @@
 package com.jewel.reportmanager.service;
 
+import com.jewel.reportmanager.cache.SuiteReportCache;
 import com.jewel.reportmanager.dto.ProjectDto;
 import com.jewel.reportmanager.dto.Response;
 import com.jewel.reportmanager.dto.UserDto;
@@ -13,6 +14,7 @@ import com.jewel.reportmanager.utils.ReportUtils;
 import com.jewel.reportmanager.utils.RestApiUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import javax.servlet.http.HttpServletRequest;
@@ -28,6 +30,8 @@ public class ColumnMappingService {
     private ColumnMappingRepository columnMappingRepository;
     @Autowired
     private SequenceGenerator sequenceGenerator;
+    @Autowired
+    private SuiteReportCache suiteReportCache;
 
 
     /**
@@ -65,6 +69,7 @@ public class ColumnMappingService {
         columnMapping.setDeleted(false);
 
         Map<String, Object> result = processColumnMapping(columnMapping);
+        invalidateSuiteReports(columnMapping);
 
         log.info("Column Mapping added successfully. User: {}, Column Mapping: {}", username, columnMapping);
         return result;
@@ -106,6 +111,8 @@ public class ColumnMappingService {
         columnMapping.setUpdatedAt(new Date().getTime());
 
         Map<String, Object> result =  processColumnMapping(columnMapping);
+        invalidateSuiteReports(existingMapping);
+        invalidateSuiteReports(columnMapping);
 
         log.info("Column Mapping updated successfully. User: {}, Column Mapping ID: {}", username, columnMapping.getId());
 
@@ -138,6 +145,7 @@ public class ColumnMappingService {
         columnMapping.setUpdatedAt(new Date().getTime());
         columnMapping.setUpdatedBy(username);
         columnMappingRepository.save(columnMapping);
+        invalidateSuiteReports(columnMapping);
 
         log.info("Column Mapping deleted successfully. User: {}, Column Mapping ID: {}", username, id);
 
@@ -184,6 +192,24 @@ public class ColumnMappingService {
     }
 
 
+    /**
+     * Returns the version of the column mappings that can apply to the reports of pid: those of the
+     * project and the framework level ones, deleted ones included. It changes whenever one of them is
+     * added, updated, deleted or moved to another project.
+     *
+     * @param pid The project ID.
+     * @return A list of [id, pid, level, addedAt, updatedAt, isDeleted] per column mapping, by id.
+     */
+    public List<List<Object>> getColumnMappingVersion(Long pid) {
+        List<List<Object>> version = new ArrayList<>();
+        for (ColumnMapping columnMapping : columnMappingRepository.findVersionsByPidOrLevel(pid, ColumnLevel.FRAMEWORK, Sort.by("id"))) {
+            version.add(Arrays.asList(columnMapping.getId(), columnMapping.getPid(), columnMapping.getLevel(),
+                    columnMapping.getAddedAt(), columnMapping.getUpdatedAt(), columnMapping.isDeleted()));
+        }
+        return version;
+    }
+
+
     /**
      * Process a column mapping by ensuring valid values.
      *
@@ -209,6 +235,21 @@ public class ColumnMappingService {
     }
 
 
+    /**
+     * Drop the suite report snapshots the column mapping applies to: those of its project, or all
+     * of them for a framework level mapping.
+     *
+     * @param columnMapping The added, updated or deleted column mapping.
+     */
+    private void invalidateSuiteReports(ColumnMapping columnMapping) {
+        if (isFrameworkLevel(columnMapping) || columnMapping.getPid() == null) {
+            suiteReportCache.invalidateAll();
+        } else {
+            suiteReportCache.invalidateProject(columnMapping.getPid());
+        }
+    }
+
+
     /**
      * Check if the column mapping is at the framework level.
      *
@@ -1,5 +1,6 @@
 package com.jewel.reportmanager.service;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -12,7 +13,10 @@ public class JwtHelperService {
     private final String SECRET_KEY = "secret";
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody().getSubject();
+        return getClaimsFromJwtToken(token).getSubject();
     }
-}
 
+    public Claims getClaimsFromJwtToken(String token) {
+        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    }
+}
@@ -1,11 +1,24 @@
 package com.jewel.reportmanager.service;
 
+import com.jewel.reportmanager.cache.ReportTotalsCache;
+import com.jewel.reportmanager.cache.SuiteReportCache;
 import com.jewel.reportmanager.dto.*;
 import com.jewel.reportmanager.dto.RuleApi;
+import com.jewel.reportmanager.entity.SuiteSummaryBucket;
 import com.jewel.reportmanager.enums.StatusColor;
 import com.jewel.reportmanager.exception.CustomDataException;
+import com.jewel.reportmanager.utils.AsyncUtils;
+import com.jewel.reportmanager.utils.CompactTable;
+import com.jewel.reportmanager.utils.ETagUtils;
+import com.jewel.reportmanager.utils.PageCursorUtils;
+import com.jewel.reportmanager.utils.ReportRowCollector;
+import com.jewel.reportmanager.utils.ReportRowWriter;
 import com.jewel.reportmanager.utils.ReportUtils;
+import com.jewel.reportmanager.utils.RequestMemoUtils;
 import com.jewel.reportmanager.utils.RestApiUtils;
+import com.jewel.reportmanager.utils.RunHistoryMetrics;
+import com.jewel.reportmanager.utils.StatusHistogram;
+import com.jewel.reportmanager.utils.SuiteSummaryUtils;
 import com.mongodb.BasicDBObject;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -16,13 +29,18 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpServletRequest;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.jewel.reportmanager.enums.OperationType.*;
 import static com.jewel.reportmanager.enums.StatusColor.*;
 import static com.jewel.reportmanager.enums.UserRole.*;
+import static com.jewel.reportmanager.utils.PageCursorUtils.SUITE_EXE_PAGE_SIZE;
 import static com.jewel.reportmanager.utils.ReportResponseConstants.NEVER_FIXED;
 import static com.jewel.reportmanager.utils.ReportResponseConstants.*;
 
@@ -39,16 +57,57 @@ public class RuleService {
     @Autowired
     private JwtHelperService jwtHelper;
 
+    @Autowired
+    private ReportTotalsCache reportTotalsCache;
+
+    @Autowired
+    private SuiteReportCache suiteReportCache;
+
+    @Autowired
+    private ColumnMappingService columnMappingService;
+
+    /**
+     * @param payload
+     * @param pageNo
+     * @param cursor       nextCursor of the previous page, replaces pageNo when present
+     * @param sort
+     * @param sortedColumn
+     * @param deferTotals  return the page without waiting for the total of the suite run and testcase
+     *                     run reports, see putDeferredTotal
+     * @param format       compact for the rows in CompactTable form, null for a map per cell
+     * @return Response
+     * @throws ParseException
+     */
+    public Response getRuleReport(RuleApi payload, Integer pageNo, String cursor,
+                                  Integer sort, String sortedColumn, boolean deferTotals, String format) throws ParseException {
+        if (CompactTable.isCompact(format)) {
+            CompactTable rows = new CompactTable();
+            Response response = getRuleReport(payload, pageNo, cursor, sort, sortedColumn, deferTotals, rows);
+            rows.putInto((Map<String, Object>) response.getData());
+            return response;
+        }
+        ReportRowCollector rows = new ReportRowCollector();
+        Response response = getRuleReport(payload, pageNo, cursor, sort, sortedColumn, deferTotals, rows);
+        rows.putInto((Map<String, Object>) response.getData());
+        return response;
+    }
+
     /**
+     * Creates a rule report, handing its headers and then every row to rows as soon as it is
+     * computed instead of keeping them. The returned Response holds the rest of the result.
+     *
      * @param payload
      * @param pageNo
+     * @param cursor       nextCursor of the previous page, replaces pageNo when present
      * @param sort
      * @param sortedColumn
+     * @param deferTotals
+     * @param rows
      * @return Response
      * @throws ParseException
      */
-    public Response getRuleReport(RuleApi payload, Integer pageNo,
-                                  Integer sort, String sortedColumn) throws ParseException {
+    public Response getRuleReport(RuleApi payload, Integer pageNo, String cursor, Integer sort, String sortedColumn,
+                                  boolean deferTotals, ReportRowWriter rows) throws ParseException {
 
         if ((sort != null && sortedColumn == null) || (sort == null && sortedColumn != null)) {
             log.error("Error occurred due to records not found");
@@ -58,6 +117,7 @@ public class RuleService {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(INVALID_SORT_VALUE, null, Failure, HttpStatus.OK);
         }
+        PageCursor pageCursor = PageCursorUtils.decode(cursor, sort, sortedColumn);
 
         UserDto user = ReportUtils.getUserDtoFromServetRequest();
         String username = user.getUsername();
@@ -74,27 +134,33 @@ public class RuleService {
         payload.setProjectid(accessPids);
         allPids.removeAll(accessPids);
 
-        List<String> errors = new ArrayList<>();
+        CompletableFuture<List<String>> errors;
         if (!allPids.isEmpty()) {
-            List<String> projectNames = RestApiUtils.getProjectNames(payload.getProjectid());
-            for (String projectName : projectNames) {
-                errors.add("You don't have access for " + projectName.toUpperCase());
-            }
+            List<Long> pids = new ArrayList<>(payload.getProjectid());
+            errors = AsyncUtils.supplyAsync(() -> {
+                List<String> accessErrors = new ArrayList<>();
+                for (String projectName : RestApiUtils.getProjectNames(pids)) {
+                    accessErrors.add("You don't have access for " + projectName.toUpperCase());
+                }
+                return accessErrors;
+            });
+        } else {
+            errors = CompletableFuture.completedFuture(new ArrayList<>());
         }
 
         switch ((int) payload.getReportid()) {
             case 1:
-                return createSuiteRunReport(payload, pageNo, sort, sortedColumn, errors);
+                return createSuiteRunReport(payload, pageNo, pageCursor, sort, sortedColumn, deferTotals, errors, rows);
             case 2:
-                return createSuiteSummaryReport(payload, pageNo, errors);
+                return createSuiteSummaryReport(payload, pageNo, pageCursor, errors, rows);
             case 3:
-                return createSuiteDiagnoseReport(payload, pageNo, errors);
+                return createSuiteDiagnoseReport(payload, pageNo, pageCursor, errors, rows);
             case 4:
-                return createTestCaseRunReport(payload, pageNo, sort, sortedColumn, errors);
+                return createTestCaseRunReport(payload, pageNo, pageCursor, sort, sortedColumn, deferTotals, errors, rows);
             case 5:
-                return createTestCaseSummaryReport(payload, pageNo, sort, sortedColumn, errors);
+                return createTestCaseSummaryReport(payload, pageNo, pageCursor, sort, sortedColumn, errors, rows);
             case 6:
-                return createTestCaseDiagnoseReport(payload, pageNo, sort, sortedColumn, errors);
+                return createTestCaseDiagnoseReport(payload, pageNo, pageCursor, sort, sortedColumn, errors, rows);
             default:
                 log.error("Error occurred due to records not found");
                 throw new CustomDataException(REPORT_ID_NOT_VALID, null, Failure, HttpStatus.OK);
@@ -107,22 +173,25 @@ public class RuleService {
      *
      * @param payload
      * @param pageNo
+     * @param cursor
      * @param sort
      * @param sortedColumn
+     * @param deferTotals
      * @param errors
+     * @param rows
      * @return
      * @throws ParseException
      */
 
-    private Response createSuiteRunReport(RuleApi payload, Integer pageNo,
-                                          Integer sort, String sortedColumn, List<String> errors) throws ParseException {
+    private Response createSuiteRunReport(RuleApi payload, Integer pageNo, PageCursor cursor,
+                                          Integer sort, String sortedColumn, boolean deferTotals, CompletableFuture<List<String>> errors,
+                                          ReportRowWriter rows) throws ParseException {
 
         Map<String, Object> result = new HashMap<>();
         List<Object> headers = new ArrayList<>();
         Collections.addAll(headers, "Project Name", "Report Name", "Environment", "Status", "Executed By", "Action",
                 "Duration", "Testcase Summary");
-        result.put("headers", headers);
-        List<Map<String, Object>> data = new ArrayList<>();
+        rows.writeHeaders(headers);
         long startTime = new SimpleDateFormat("MM/dd/yyyy").parse(payload.getStartTime()).getTime();
         long endTime = new SimpleDateFormat("MM/dd/yyyy").parse(payload.getEndTime()).getTime()
                 + (1000 * 60 * 60 * 24);
@@ -132,103 +201,126 @@ public class RuleService {
         List<Long> p_ids = payload.getProjectid();
         envs.replaceAll(String::toLowerCase);
 
-        long count = RestApiUtils.getSuiteExeCount(p_ids, envs, startTime, endTime);
-        if (count == 0) {
-            log.error("Error occurred due to records not found");
-            throw new CustomDataException(SUITE_DETAILS_NOT_FOUND, null, Failure, HttpStatus.NOT_FOUND);
-        }
         if (pageNo != null && pageNo <= 0) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
         }
 
-        List<SuiteExeDto> suiteReports = RestApiUtils.getSuiteExes(p_ids, envs, startTime, endTime, pageNo, sort, sortedColumn);
+        SuiteExePageDto suiteExePage = RestApiUtils.getSuiteExePage(p_ids, envs, startTime, endTime, pageNo, cursor, sort, sortedColumn, !deferTotals);
+        Long count = suiteExePage.getCount();
+        List<SuiteExeDto> suiteReports = suiteExePage.getResults();
+        if (count != null ? count == 0 : suiteReports.isEmpty() && isFirstPage(pageNo, cursor)) {
+            log.error("Error occurred due to records not found");
+            throw new CustomDataException(SUITE_DETAILS_NOT_FOUND, null, Failure, HttpStatus.NOT_FOUND);
+        }
+
         if (suiteReports.isEmpty()) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(PAGE_NUMBER_IS_ABOVE_TOTAL_PAGES, null, Failure, HttpStatus.OK);
         }
-        List<String> sRunIds = RestApiUtils.getS_Run_Ids(p_ids, envs, startTime, endTime, pageNo, sort, sortedColumn);
 
-        List<TestExeDto> testExeDtoList = RestApiUtils.getTestExeListForS_run_ids(sRunIds);
+        Map<String, SuiteRunTestExeStats> testExeStats = ReportUtils.groupTestExesByS_run_id(
+                RestApiUtils.getTestExeSummaryListForS_run_ids(suiteExePage.getS_run_ids()));
 
-        for (SuiteExeDto suiteExeDto : suiteReports) {
-            data.add(createSuiteExeReport(testExeDtoList, suiteExeDto));
+        // latest suite exes of the page first
+        for (int i = suiteReports.size() - 1; i >= 0; i--) {
+            SuiteExeDto suiteExeDto = suiteReports.get(i);
+            rows.writeRow(createSuiteExeReport(testExeStats.getOrDefault(suiteExeDto.getS_run_id(), new SuiteRunTestExeStats()), suiteExeDto));
         }
 
-        Collections.reverse(data);
-
-        result.put("data", data);
-        result.put("totalElements", count);
-        if (!errors.isEmpty()) {
-            result.put("errors", errors);
+        result.put("nextCursor", PageCursorUtils.hasNext(suiteReports.size(), SUITE_EXE_PAGE_SIZE, pageNo, cursor)
+                ? PageCursorUtils.next(suiteReports.get(suiteReports.size() - 1), "s_start_time", "s_run_id", sort, sortedColumn)
+                : null);
+        if (deferTotals) {
+            putDeferredTotal(result, payload, count, () -> RestApiUtils.getSuiteExeCount(p_ids, envs, startTime, endTime));
+        } else {
+            result.put("totalElements", count);
         }
-        return new Response(result, count + " Records found", Success);
+        List<String> accessErrors = AsyncUtils.join(errors);
+        if (!accessErrors.isEmpty()) {
+            result.put("errors", accessErrors);
+        }
+        return new Response(result, (count != null ? count : suiteReports.size()) + " Records found", Success);
+    }
+
+    /**
+     * Puts totalElements in result without counting: estimate, else the last exact total of the
+     * report query, else null, with exact false and a totalsId. The exact total is then counted
+     * with counter and sent as {totalsId, totalElements, exact} to /user/{pid}/private of every pid
+     * of payload. It can also be fetched with getRuleReportTotal(totalsId) until it expires.
+     *
+     * @param result
+     * @param payload
+     * @param estimate
+     * @param counter
+     */
+    private void putDeferredTotal(Map<String, Object> result, RuleApi payload, Long estimate, Supplier<Long> counter) {
+        String totalsId = UUID.randomUUID().toString();
+        result.put("totalsId", totalsId);
+        result.put("totalElements", estimate != null ? estimate : reportTotalsCache.getLastTotal(payload));
+        result.put("exact", false);
+        List<Long> pids = new ArrayList<>(payload.getProjectid());
+        AsyncUtils.supplyAsync(counter).whenComplete((total, ex) -> {
+            if (ex != null || total == null) {
+                log.warn("Deferred total could not be counted for totalsId: {}", totalsId, ex);
+                return;
+            }
+            reportTotalsCache.put(totalsId, payload, total);
+            Map<String, Object> messageMap = Map.of("totalsId", totalsId, "totalElements", total, "exact", true);
+            for (Long pid : pids) {
+                simpMessagingTemplate.convertAndSendToUser(String.valueOf(pid), "/private", messageMap);
+            }
+        });
+    }
+
+    /**
+     * Returns the total counted for totalsId of a rule report page requested with deferTotals.
+     *
+     * @param totalsId
+     * @return Response
+     */
+    public Response getRuleReportTotal(String totalsId) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("totalsId", totalsId);
+        Long total = reportTotalsCache.getTotal(totalsId);
+        result.put("totalElements", total);
+        result.put("exact", total != null);
+        return new Response(result, total != null ? REPORT_TOTAL_FOUND : REPORT_TOTAL_NOT_COUNTED, total != null ? Success : Info);
+    }
+
+    private static boolean isFirstPage(Integer pageNo, PageCursor cursor) {
+        return cursor == null && (pageNo == null || pageNo == 1);
     }
 
     /**
      * creates suite exe report for list of suite exes.
      *
-     * @param testExeDtoList
+     * @param stats
      * @param suiteExeDto
      * @return
      */
-    private Map<String, Object> createSuiteExeReport(List<TestExeDto> testExeDtoList, SuiteExeDto suiteExeDto) {
-        Map<String, Object> temp = new HashMap<>();
-        Map<String, Long> statusMap = new HashMap<>();
-        Set<String> users = new HashSet<>();
-
-        for (StatusColor statusColor : StatusColor.values()) {
-            statusMap.put(statusColor.toString(), 0L);
-        }
-        if (!testExeDtoList.isEmpty()) {
-            temp = getTestExeStatusForSuiteExe(testExeDtoList, suiteExeDto, users, statusMap);
-        }
-
-        createActionReportForSuiteExe(temp, suiteExeDto, users);
+    private Map<String, Object> createSuiteExeReport(SuiteRunTestExeStats stats, SuiteExeDto suiteExeDto) {
+        Map<String, Object> temp = getTestExeStatusForSuiteExe(stats);
+        createActionReportForSuiteExe(temp, suiteExeDto, stats.getInvokeUsers());
         return temp;
     }
 
     /**
      * Return test exe status for suite exe.
      *
-     * @param testExeDtoList
-     * @param suiteExeDto
-     * @param users
-     * @param statusMap
+     * @param stats
      * @return
      */
-    private Map<String, Object> getTestExeStatusForSuiteExe(List<TestExeDto> testExeDtoList, SuiteExeDto suiteExeDto, Set<String> users, Map<String, Long> statusMap) {
+    private Map<String, Object> getTestExeStatusForSuiteExe(SuiteRunTestExeStats stats) {
         Map<String, Object> temp = new HashMap<>();
-        long totalCount = 0L;
-        for (TestExeDto testExeDto : testExeDtoList) {
-            if (!testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                continue;
-            }
-            if (testExeDto.getInvoke_user() != null) {
-                users.add(testExeDto.getInvoke_user());
-            }
-            if (testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                String status = testExeDto.getStatus().toUpperCase();
-                switch (status) {
-                    case "PASS":
-                    case "FAIL":
-                    case "EXE":
-                    case "ERR":
-                    case "INFO":
-                    case "WARN":
-                        long value = statusMap.get(status) + 1;
-                        statusMap.put(status, value);
-                        totalCount++;
-                }
-            }
-        }
-        if (totalCount > 0) {
+        StatusHistogram statusHistogram = stats.getStatusHistogram();
+        if (statusHistogram.getTotal() > 0) {
             Map<String, Object> doughnutSubType = new HashMap<>();
             doughnutSubType.put("subType", "doughnut_chart");
             doughnutSubType.put("heading", "Total Testcase(s)");
             temp.put("Testcase Summary",
-                    ReportUtils.createCustomObject(ReportUtils.createDoughnutChart(statusMap),
-                            "chart", totalCount, "center", doughnutSubType));
+                    ReportUtils.createCustomObject(statusHistogram.toDoughnutChart(),
+                            "chart", statusHistogram.getTotal(), "center", doughnutSubType));
         }
         return temp;
     }
@@ -281,15 +373,15 @@ public class RuleService {
         }
     }
 
-    private Response createSuiteSummaryReport(RuleApi payload, Integer pageNo, List<String> errors) throws ParseException {
+    private Response createSuiteSummaryReport(RuleApi payload, Integer pageNo, PageCursor cursor, CompletableFuture<List<String>> errors,
+                                              ReportRowWriter rows) throws ParseException {
 
         Map<String, Object> result = new HashMap<>();
         List<Object> headers = new ArrayList<>();
-        List<Map<String, Object>> data = new ArrayList<>();
         Collections.addAll(headers, "Project Name", "Report Name", "Environment", "Suite Summary", "Last 5 Runs",
                 "Stability Index",
                 "Average Fix Time", "App Stability Score", "Automation Stability Score", "Analysis");
-        result.put("headers", headers);
+        rows.writeHeaders(headers);
 
         long startTime = new SimpleDateFormat("MM/dd/yyyy").parse(payload.getStartTime()).getTime();
         long endTime = new SimpleDateFormat("MM/dd/yyyy").parse(payload.getEndTime()).getTime()
@@ -306,79 +398,94 @@ public class RuleService {
             throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
         }
 
-        List<String> reportNames = RestApiUtils.getReportNames(p_ids, envs, startTime, endTime, pageNo);
+        List<String> reportNames = RestApiUtils.getReportNames(p_ids, envs, startTime, endTime, pageNo, cursor);
         if (reportNames.isEmpty()) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(SUITE_DETAILS_NOT_FOUND, null, Failure, HttpStatus.NOT_FOUND);
         }
 
         long count = getReportDetailsToCreateSuiteSummaryReport(reportNames, p_ids, projects, startTime,
-                endTime, envs, data);
+                endTime, envs, headers, rows);
 
-        result.put("data", data);
+        result.put("nextCursor", PageCursorUtils.next(reportNames.get(reportNames.size() - 1), null, null));
         result.put("totalElements", count);
-        if (!errors.isEmpty()) {
-            result.put("errors", errors);
+        List<String> accessErrors = AsyncUtils.join(errors);
+        if (!accessErrors.isEmpty()) {
+            result.put("errors", accessErrors);
         }
 
         return new Response(result, count + " Records found", Success);
     }
 
-    private Long getReportDetailsToCreateSuiteSummaryReport(List<String> reportNames, List<Long> p_ids, List<String> projects, long startTime, long endTime, List<String> envs, List<Map<String, Object>> data) {
+    private Long getReportDetailsToCreateSuiteSummaryReport(List<String> reportNames, List<Long> p_ids, List<String> projects, long startTime, long endTime, List<String> envs,
+                                                            List<Object> headers, ReportRowWriter rows) {
         long count = 0;
-        for (String reportName : reportNames) {
-            Map<String, List<SuiteExeDto>> suiteMap = ReportUtils.getSuiteNames(reportName, p_ids, projects, startTime,
-                    endTime, envs);
-            count = count + suiteMap.size();
-            for (Map.Entry<String, List<SuiteExeDto>> entry : suiteMap.entrySet()) {
-                if (entry.getValue().isEmpty()) {
-                    continue;
-                }
-                List<SuiteExeDto> getAllSuites = entry.getValue();
-                Map<String, Long> statusMap = new HashMap<>();
-                for (StatusColor statusColor : StatusColor.values()) {
-                    statusMap.put(statusColor.toString(), 0L);
-                }
-
-                long totalCount = getStatusMapForAllSuites(getAllSuites, statusMap);
-
-                data.add(getReportDataForSuiteSummaryReport(getAllSuites, reportName, totalCount, statusMap));
+        Map<String, List<SuiteSummaryBucket>> summaryGroups = SuiteSummaryUtils.getSuiteSummaries(reportNames, p_ids,
+                projects, startTime, endTime, envs);
+        Map<String, List<TestExeStatusCountDto>> statusCounts = getTestExeStatusCountsForLastRuns(summaryGroups);
+        for (Map.Entry<String, List<SuiteSummaryBucket>> reportGroups : summaryGroups.entrySet()) {
+            if (reportGroups.getValue() == null) {
+                count++;
+                rows.writeRow(getTimedOutReportData(reportGroups.getKey(), headers));
+                continue;
+            }
+            count = count + reportGroups.getValue().size();
+            for (SuiteSummaryBucket summary : reportGroups.getValue()) {
+                rows.writeRow(getReportDataForSuiteSummaryReport(summary, reportGroups.getKey(), statusCounts));
             }
         }
         return count;
     }
 
-    private Long getStatusMapForAllSuites(List<SuiteExeDto> getAllSuites, Map<String, Long> statusMap) {
-        long totalCount = 0L;
-        for (SuiteExeDto suiteExeDto : getAllSuites) {
-            String status = suiteExeDto.getStatus().toUpperCase();
-            switch (status) {
-                case "PASS":
-                case "FAIL":
-                case "EXE":
-                case "ERR":
-                case "INFO":
-                case "WARN":
-                    long value = statusMap.get(status) + 1;
-                    statusMap.put(status, value);
-                    totalCount++;
+    /**
+     * Row of a report name whose suite summaries timed out: "-" in every column but Report Name.
+     */
+    private Map<String, Object> getTimedOutReportData(String reportName, List<Object> headers) {
+        Map<String, Object> temp = new HashMap<>();
+        for (Object header : headers) {
+            temp.put(String.valueOf(header), ReportUtils.createCustomObject("-", "text", "-", "left"));
+        }
+        temp.put("Report Name",
+                ReportUtils.createCustomObject(StringUtils.capitalize(reportName), "text", reportName,
+                        "left"));
+        return temp;
+    }
+
+    /**
+     * Fetches the test exe status counts of the last runs of every suite summary of the page in
+     * one batched call instead of one call per suite run.
+     */
+    private Map<String, List<TestExeStatusCountDto>> getTestExeStatusCountsForLastRuns(Map<String, List<SuiteSummaryBucket>> summaryGroups) {
+        List<String> sRunIds = new ArrayList<>();
+        for (List<SuiteSummaryBucket> summaries : summaryGroups.values()) {
+            if (summaries == null) {
+                continue;
+            }
+            for (SuiteSummaryBucket summary : summaries) {
+                for (SuiteSummaryBucket.SuiteRunRef lastRun : summary.getLastRuns()) {
+                    sRunIds.add(lastRun.getS_run_id());
+                }
             }
         }
-        return totalCount;
+        if (sRunIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return RestApiUtils.getTestExeStatusCounts(sRunIds).stream()
+                .collect(Collectors.groupingBy(TestExeStatusCountDto::getS_run_id));
     }
 
-    private Map<String, Object> getReportDataForSuiteSummaryReport(List<SuiteExeDto> getAllSuites, String reportName, Long totalCount, Map<String, Long> statusMap) {
-        String env = getAllSuites.get(0).getEnv();
-        List<SuiteExeDto> sortedList = ReportUtils.getSortedListForSuiteExe(getAllSuites);
-        double brokenIndex = ReportUtils.brokenIndexForSuiteExe(getAllSuites);
+    private Map<String, Object> getReportDataForSuiteSummaryReport(SuiteSummaryBucket summary, String reportName,
+                                                                   Map<String, List<TestExeStatusCountDto>> statusCounts) {
+        double brokenIndex = SuiteSummaryUtils.getBrokenIndex(summary);
         int stabilityIndex = ReportUtils.stabilityIndex(brokenIndex);
-        long averageFixTime = ReportUtils.averageFixTimeForSuiteExe(getAllSuites);
-        long downTime = ReportUtils.getDownTimeForSuiteExe(sortedList);
-        Map<String, Object> last5SuiteRuns = ReportUtils.last5SuiteRuns(getAllSuites);
-        Map<String, Long> culprit = ReportUtils.culprit(getAllSuites);
-
-        double devScore = ReportUtils.getScore(brokenIndex, downTime, averageFixTime, env, getAllSuites);
-        double qaScore = ReportUtils.getQAScore(getAllSuites);
+        long averageFixTime = SuiteSummaryUtils.getAverageFixTime(summary);
+        long downTime = SuiteSummaryUtils.getDownTime(summary);
+        Map<String, Object> last5SuiteRuns = ReportUtils.last5SuiteRuns(summary.getLastRuns(), statusCounts);
+        Map<String, Long> culprit = SuiteSummaryUtils.getCulprit(summary);
+        StatusHistogram statusHistogram = SuiteSummaryUtils.getStatusHistogram(summary);
+
+        double devScore = SuiteSummaryUtils.getScore(summary, brokenIndex, downTime, averageFixTime);
+        double qaScore = SuiteSummaryUtils.getQAScore(summary);
         String averageFixTimeStr;
         if (brokenIndex == 1) {
             averageFixTimeStr = NEVER_FIXED;
@@ -403,17 +510,17 @@ public class RuleService {
                         "left"));
         temp.put("Project Name",
                 ReportUtils.createCustomObject(
-                        StringUtils.capitalize(getAllSuites.get(0).getProject_name()), "text",
-                        getAllSuites.get(0).getProject_name(), "left"));
+                        StringUtils.capitalize(summary.getProjectName()), "text",
+                        summary.getProjectName(), "left"));
         temp.put("Environment",
-                ReportUtils.createCustomObject(StringUtils.capitalize(getAllSuites.get(0).getEnv()), "text",
-                        getAllSuites.get(0).getEnv(), "left"));
+                ReportUtils.createCustomObject(StringUtils.capitalize(summary.getEnv()), "text",
+                        summary.getEnv(), "left"));
         Map<String, Object> doughnutSubType = new HashMap<>();
         doughnutSubType.put("subType", "doughnut_chart");
         doughnutSubType.put("heading", "Total Suite(s)");
         temp.put("Suite Summary",
-                ReportUtils.createCustomObject(ReportUtils.createDoughnutChart(statusMap), "chart",
-                        totalCount, "center", doughnutSubType));
+                ReportUtils.createCustomObject(statusHistogram.toDoughnutChart(), "chart",
+                        statusHistogram.getTotal(), "center", doughnutSubType));
         temp.put("Stability Index",
                 ReportUtils.createCustomObject(stabilityIndex + "%", "text", stabilityIndex, "center"));
         temp.put("Average Fix Time",
@@ -431,20 +538,20 @@ public class RuleService {
                 ReportUtils.createCustomObject(devScore, "score", devScore, "center"));
         temp.put("Automation Stability Score",
                 ReportUtils.createCustomObject(qaScore, "score", qaScore, "center"));
-        temp.put("P ID", ReportUtils.createCustomObject(getAllSuites.get(0).getP_id(), "text",
-                getAllSuites.get(0).getP_id(), "center"));
+        temp.put("P ID", ReportUtils.createCustomObject(summary.getPid(), "text",
+                summary.getPid(), "center"));
         return temp;
     }
 
-    private Response createSuiteDiagnoseReport(RuleApi payload, Integer pageNo, List<String> errors) throws ParseException {
+    private Response createSuiteDiagnoseReport(RuleApi payload, Integer pageNo, PageCursor cursor, CompletableFuture<List<String>> errors,
+                                               ReportRowWriter rows) throws ParseException {
 
         Map<String, Object> result = new HashMap<>();
         List<Object> headers = new ArrayList<>();
-        List<Map<String, Object>> data = new ArrayList<>();
         Collections.addAll(headers, "Project Name", "Report Name", "Environment", "Last Run Status", "Failing Since",
                 "Stability Index", "Downtime", "Average Fix Time", "Last Pass", "Last Status Details",
                 "Analysis");
-        result.put("headers", headers);
+        rows.writeHeaders(headers);
 
         long startTime = new SimpleDateFormat("MM/dd/yyyy").parse(payload.getStartTime()).getTime();
         long endTime = new SimpleDateFormat("MM/dd/yyyy").parse(payload.getEndTime()).getTime()
@@ -461,50 +568,51 @@ public class RuleService {
             throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
         }
 
-        List<String> reportNames = RestApiUtils.getReportNames(p_ids, envs, startTime, endTime, pageNo);
+        List<String> reportNames = RestApiUtils.getReportNames(p_ids, envs, startTime, endTime, pageNo, cursor);
         if (reportNames.isEmpty()) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(SUITE_DETAILS_NOT_FOUND, null, Failure, HttpStatus.NOT_FOUND);
         }
 
         long count = getReportDetailsToCreateSuiteDiagnoseReport(reportNames, p_ids, projects, startTime,
-                endTime, envs, data);
+                endTime, envs, headers, rows);
 
-        result.put("data", data);
-        if (!errors.isEmpty()) {
-            result.put("errors", errors);
+        result.put("nextCursor", PageCursorUtils.next(reportNames.get(reportNames.size() - 1), null, null));
+        List<String> accessErrors = AsyncUtils.join(errors);
+        if (!accessErrors.isEmpty()) {
+            result.put("errors", accessErrors);
         }
         result.put("totalElements", count);
 
         return new Response(result, count + " Records found", Success);
     }
 
-    private Long getReportDetailsToCreateSuiteDiagnoseReport(List<String> reportNames, List<Long> pIds, List<String> projects, long startTime, long endTime, List<String> envs, List<Map<String, Object>> data) {
+    private Long getReportDetailsToCreateSuiteDiagnoseReport(List<String> reportNames, List<Long> pIds, List<String> projects, long startTime, long endTime, List<String> envs,
+                                                             List<Object> headers, ReportRowWriter rows) {
         long count = 0;
-        for (String reportName : reportNames) {
-            Map<String, List<SuiteExeDto>> suiteMap = ReportUtils.getSuiteNames(reportName, pIds, projects, startTime,
-                    endTime, envs);
-            count = count + suiteMap.size();
-            for (Map.Entry<String, List<SuiteExeDto>> entry : suiteMap.entrySet()) {
-                if (entry.getValue().isEmpty()) {
-                    continue;
-                }
-                List<SuiteExeDto> getAllSuites = entry.getValue();
-                List<SuiteExeDto> sortedList = ReportUtils.getSortedListForSuiteExe(getAllSuites);
-                double brokenIndex = ReportUtils.brokenIndexForSuiteExe(getAllSuites);
+        Map<String, List<SuiteSummaryBucket>> summaryGroups = SuiteSummaryUtils.getSuiteSummaries(reportNames, pIds,
+                projects, startTime, endTime, envs);
+        Map<String, List<TestExeStatusCountDto>> statusCounts = getTestExeStatusCountsForLastRuns(summaryGroups);
+        for (Map.Entry<String, List<SuiteSummaryBucket>> reportGroups : summaryGroups.entrySet()) {
+            String reportName = reportGroups.getKey();
+            if (reportGroups.getValue() == null) {
+                count++;
+                rows.writeRow(getTimedOutReportData(reportName, headers));
+                continue;
+            }
+            count = count + reportGroups.getValue().size();
+            for (SuiteSummaryBucket summary : reportGroups.getValue()) {
+                double brokenIndex = SuiteSummaryUtils.getBrokenIndex(summary);
                 int stabilityIndex = ReportUtils.stabilityIndex(brokenIndex);
-                String failingSince = getFailingSinceForSuiteExe(sortedList, brokenIndex);
-                String lastRunStatus = sortedList.get(0).getStatus();
-                Long lastPass = getLastPassForSuiteExe(sortedList);
-                long downTime = ReportUtils.getDownTimeForSuiteExe(sortedList);
-                Map<String, Long> culprit = ReportUtils.culprit(getAllSuites);
-
-                Map<String, Long> statusMap = lastStatusDetails(sortedList);
-                long totalCount = 0;
-                for (Map.Entry<String, Long> entry1 : statusMap.entrySet()) {
-                    totalCount = totalCount + entry1.getValue();
-                }
-                long averageFixTime = ReportUtils.averageFixTimeForSuiteExe(getAllSuites);
+                String failingSince = ReportUtils.getFailingSince(summary.getHistory(), brokenIndex);
+                SuiteSummaryBucket.SuiteRunRef lastRun = summary.getLastRuns().get(0);
+                String lastRunStatus = lastRun.getStatus();
+                Long lastPass = summary.getHistory().getLastPassTime();
+                long downTime = SuiteSummaryUtils.getDownTime(summary);
+                Map<String, Long> culprit = SuiteSummaryUtils.getCulprit(summary);
+
+                StatusHistogram statusHistogram = lastStatusDetails(lastRun, statusCounts);
+                long averageFixTime = SuiteSummaryUtils.getAverageFixTime(summary);
                 String downTimeStr;
                 String averageFixTimeStr;
                 if (brokenIndex == 1) {
@@ -519,15 +627,15 @@ public class RuleService {
                     downTimeStr = ReportUtils.convertLongToTime(downTime);
                 }
 
-                data.add(getDataForSuiteExeToCreateSuiteDiagnoseReport(reportName, getAllSuites, stabilityIndex, failingSince, lastRunStatus, lastPass,
-                        culprit, downTimeStr, averageFixTimeStr, statusMap, totalCount));
+                rows.writeRow(getDataForSuiteExeToCreateSuiteDiagnoseReport(reportName, summary, stabilityIndex, failingSince, lastRunStatus, lastPass,
+                        culprit, downTimeStr, averageFixTimeStr, statusHistogram));
             }
         }
         return count;
     }
 
-    private Map<String, Object> getDataForSuiteExeToCreateSuiteDiagnoseReport(String reportName, List<SuiteExeDto> getAllSuites, int stabilityIndex, String failingSince, String lastRunStatus, Long lastPass,
-                                                                              Map<String, Long> culprit, String downTimeStr, String averageFixTimeStr, Map<String, Long> statusMap, long totalCount) {
+    private Map<String, Object> getDataForSuiteExeToCreateSuiteDiagnoseReport(String reportName, SuiteSummaryBucket summary, int stabilityIndex, String failingSince, String lastRunStatus, Long lastPass,
+                                                                              Map<String, Long> culprit, String downTimeStr, String averageFixTimeStr, StatusHistogram statusHistogram) {
         Map<String, Object> temp = new HashMap<>();
         temp.put("Report Name",
                 ReportUtils.createCustomObject(StringUtils.capitalize(reportName), "text", reportName,
@@ -535,8 +643,8 @@ public class RuleService {
 
         temp.put("Project Name",
                 ReportUtils.createCustomObject(
-                        StringUtils.capitalize(getAllSuites.get(0).getProject_name()), "text",
-                        getAllSuites.get(0).getProject_name(), "left"));
+                        StringUtils.capitalize(summary.getProjectName()), "text",
+                        summary.getProjectName(), "left"));
         if (culprit != null) {
             String averagePercentage = culprit.get("average") + "%";
             culprit.remove("average");
@@ -547,14 +655,14 @@ public class RuleService {
                     ReportUtils.createCustomObject("-", "text", "-", "left"));
         }
         temp.put("Environment",
-                ReportUtils.createCustomObject(StringUtils.capitalize(getAllSuites.get(0).getEnv()), "text",
-                        getAllSuites.get(0).getEnv(), "left"));
+                ReportUtils.createCustomObject(StringUtils.capitalize(summary.getEnv()), "text",
+                        summary.getEnv(), "left"));
         Map<String, Object> doughnutSubType = new HashMap<>();
         doughnutSubType.put("heading", "Total Testcase(s)");
         doughnutSubType.put("subType", "doughnut_chart");
         temp.put("Last Status Details",
-                ReportUtils.createCustomObject(ReportUtils.createDoughnutChart(statusMap), "chart",
-                        totalCount, "center", doughnutSubType));
+                ReportUtils.createCustomObject(statusHistogram.toDoughnutChart(), "chart",
+                        statusHistogram.getTotal(), "center", doughnutSubType));
         temp.put("Stability Index",
                 ReportUtils.createCustomObject(stabilityIndex + "%", "text", stabilityIndex, "center"));
         temp.put("Average Fix Time",
@@ -572,96 +680,71 @@ public class RuleService {
         temp.put("Failing Since",
                 ReportUtils.createCustomObject(failingSince, "text", failingSince, "center"));
         temp.put("Downtime", ReportUtils.createCustomObject(downTimeStr, "text", downTimeStr, "center"));
-        temp.put("P ID", ReportUtils.createCustomObject(getAllSuites.get(0).getP_id(), "text",
-                getAllSuites.get(0).getP_id(), "center"));
+        temp.put("P ID", ReportUtils.createCustomObject(summary.getPid(), "text",
+                summary.getPid(), "center"));
         return temp;
     }
 
-    private Map<String, Long> lastStatusDetails(List<SuiteExeDto> suites) {
-        String sRunId = suites.get(0).getS_run_id();
-        List<TestExeDto> testcaseDetails = RestApiUtils.getTestExeList(sRunId);
-        Map<String, Long> statusMap = new HashMap<>();
-        for (StatusColor statusColor : StatusColor.values()) {
-            statusMap.put(statusColor.toString(), 0L);
-        }
-        for (TestExeDto testExe : testcaseDetails) {
-            String status = testExe.getStatus().toUpperCase();
-            switch (status) {
-                case "PASS":
-                case "FAIL":
-                case "EXE":
-                case "ERR":
-                case "INFO":
-                case "WARN":
-                    long value = statusMap.get(status) + 1;
-                    statusMap.put(status, value);
-            }
-        }
-        return statusMap;
-    }
-
-    private Long getLastPassForSuiteExe(List<SuiteExeDto> suites) {
-        for (SuiteExeDto suite : suites) {
-            if (suite.getStatus().equalsIgnoreCase("PASS")) {
-                return suite.getS_start_time();
-            }
+    private StatusHistogram lastStatusDetails(SuiteSummaryBucket.SuiteRunRef lastRun, Map<String, List<TestExeStatusCountDto>> statusCounts) {
+        StatusHistogram statusHistogram = new StatusHistogram();
+        for (TestExeStatusCountDto statusCount : statusCounts.getOrDefault(lastRun.getS_run_id(), Collections.emptyList())) {
+            statusHistogram.add(statusCount.getStatus(), statusCount.getCount());
         }
-        return 0L;
+        return statusHistogram;
     }
 
-    private String getFailingSinceForSuiteExe(List<SuiteExeDto> suites, double brokenIndex) {
-        if (brokenIndex == 0) {
-            return NO_ISSUES;
-        } else if (brokenIndex == 1) {
-            return NEVER_FIXED;
-        } else {
-            int count = 0;
-            for (SuiteExeDto suite : suites) {
-                if (!suite.getStatus().equalsIgnoreCase("FAIL")) {
-                    break;
-                }
-                count++;
-            }
-            if (count == 0) {
-                return NO_ISSUES;
-            }
-            return new StringBuilder().append("Last ").append(count).append(" Runs").toString();
-        }
-    }
-
-    private Response createTestCaseRunReport(RuleApi payload, Integer pageNo, Integer sort,
-                                             String sortedColumn, List<String> errors) {
+    private Response createTestCaseRunReport(RuleApi payload, Integer pageNo, PageCursor cursor, Integer sort,
+                                             String sortedColumn, boolean deferTotals, CompletableFuture<List<String>> errors,
+                                             ReportRowWriter rows) {
         Map<String, Object> result = new HashMap<>();
         List<Object> headers = new ArrayList<>();
         Collections.addAll(headers, "Project Name", "TestCase Name", "Environment", "Status", "Action",
                 "Product Type",
                 "Duration");
-        result.put("headers", headers);
+        rows.writeHeaders(headers);
         if (pageNo != null && pageNo <= 0) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
         }
-        Map<String, Object> resultMap = RestApiUtils.getAllTestExesForTcRunId(payload, pageNo, sort,
-                sortedColumn);
-        long count = (long) resultMap.get("count");
+        Map<String, Object> resultMap = RestApiUtils.getAllTestExesForTcRunId(payload, pageNo, cursor, sort,
+                sortedColumn, !deferTotals);
+        Long count = (Long) resultMap.get("count");
         List<BasicDBObject> results = (List<BasicDBObject>) resultMap.get("results");
-        if (count == 0) {
+        if (count != null ? count == 0 : results.isEmpty() && isFirstPage(pageNo, cursor)) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(SUITE_DETAILS_NOT_FOUND, null, Failure, HttpStatus.NOT_FOUND);
         }
-        List<Map<String, Object>> data = getDataForTestCaseRunReport(results);
-        Collections.reverse(data);
-        result.put("data", data);
-        if (!errors.isEmpty()) {
-            result.put("errors", errors);
+        writeDataForTestCaseRunReport(results, rows);
+        result.put("nextCursor", getNextCursorForTestExes(results, sort, sortedColumn));
+        List<String> accessErrors = AsyncUtils.join(errors);
+        if (!accessErrors.isEmpty()) {
+            result.put("errors", accessErrors);
         }
-        result.put("totalElements", count);
-        return new Response(result, count + " Records found", Success);
+        if (deferTotals && count == null) {
+            putDeferredTotal(result, payload, null, () -> (Long) RestApiUtils.getAllTestExesForTcRunId(payload, 1, null,
+                    null, null, true).get("count"));
+        } else {
+            result.put("totalElements", count);
+            if (deferTotals) {
+                result.put("exact", true);
+            }
+        }
+        return new Response(result, (count != null ? count : results.size()) + " Records found", Success);
     }
 
-    private List<Map<String, Object>> getDataForTestCaseRunReport(List<BasicDBObject> results) {
-        List<Map<String, Object>> data = new ArrayList<>();
-        for (BasicDBObject testExe : results) {
+    private String getNextCursorForTestExes(List<BasicDBObject> results, Integer sort, String sortedColumn) {
+        if (results.isEmpty()) {
+            return null;
+        }
+        return PageCursorUtils.next(results.get(results.size() - 1), "start_time", "tc_run_id", sort, sortedColumn);
+    }
+
+    /**
+     * Writes a row per test exe of results, latest test exes of the page first.
+     */
+    private void writeDataForTestCaseRunReport(List<BasicDBObject> results, ReportRowWriter rows) {
+        for (int i = results.size() - 1; i >= 0; i--) {
+            BasicDBObject testExe = results.get(i);
             List<Document> suiteExeList = (List<Document>) testExe.get("result");
             Document suiteExe = suiteExeList.get(0);
             Map<String, Object> temp = new HashMap<>();
@@ -705,26 +788,25 @@ public class RuleService {
                 temp.put("Duration",
                         ReportUtils.createCustomObject("-", "text", (testExe.get("end_time")), "center"));
             }
-            data.add(temp);
+            rows.writeRow(temp);
         }
-        return data;
     }
 
-    private Response createTestCaseSummaryReport(RuleApi payload, Integer pageNo, Integer sort,
-                                                 String sortedColumn, Object errors) {
+    private Response createTestCaseSummaryReport(RuleApi payload, Integer pageNo, PageCursor cursor, Integer sort,
+                                                 String sortedColumn, CompletableFuture<List<String>> errors,
+                                                 ReportRowWriter rows) {
         Map<String, Object> result = new HashMap<>();
 
         List<Object> headers = new ArrayList<>();
-        List<Map<String, Object>> data = new ArrayList<>();
         Collections.addAll(headers, "Project Name", "TestCase Name", "TestCase Summary",
                 "Broken Index", "Average Fix Time");
-        result.put("headers", headers);
+        rows.writeHeaders(headers);
         if (pageNo != null && pageNo <= 0) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
         }
-        Map<String, Object> resultMap = RestApiUtils.getAllTestExesForTcRunId(payload, pageNo, sort,
-                sortedColumn);
+        Map<String, Object> resultMap = RestApiUtils.getAllTestExesForTcRunId(payload, pageNo, cursor, sort,
+                sortedColumn, true);
         long count = (long) resultMap.get("count");
         List<BasicDBObject> results = (List<BasicDBObject>) resultMap.get("results");
         if (count == 0) {
@@ -755,48 +837,19 @@ public class RuleService {
 
             List<TestExeCommonDto> testExeCommonDtoSummeryList = entry.getValue();
 
-            double brokenIndex = ReportUtils.brokenIndexForTestExe(testExeCommonDtoSummeryList);
+            RunHistoryMetrics metrics = RunHistoryMetrics.ofTestExes(testExeCommonDtoSummeryList);
+            double brokenIndex = metrics.getBrokenIndex();
             String averageFixTime;
             if (brokenIndex == 1) {
                 averageFixTime = NEVER_FIXED;
             } else {
-                averageFixTime = ReportUtils.averageFixTimeForTestExeCommon(testExeCommonDtoSummeryList);
+                averageFixTime = ReportUtils.averageFixTimeForTestExeCommon(metrics);
             }
-            long totalCount = 0;
-            long passCount = 0, failCount = 0, errCount = 0, warnCount = 0, infoCount = 0,
-                    exeCount = 0;
-
-            Map<String, Long> statusCount = new HashMap<>();
+            long totalCount = testExeCommonDtoSummeryList.size();
+            StatusHistogram statusHistogram = new StatusHistogram();
             for (TestExeCommonDto testExeDtovar : testExeCommonDtoSummeryList) {
-
-                if (testExeDtovar.getStatus().equalsIgnoreCase("PASS")) {
-                    passCount = passCount + 1;
-
-                } else if (testExeDtovar.getStatus().equalsIgnoreCase("FAIL")) {
-                    failCount = failCount + 1;
-
-                } else if (testExeDtovar.getStatus().equalsIgnoreCase("ERR")) {
-                    errCount = errCount + 1;
-
-                } else if (testExeDtovar.getStatus().equalsIgnoreCase("WARN")) {
-                    warnCount = warnCount + 1;
-
-                } else if (testExeDtovar.getStatus().equalsIgnoreCase("INFO")) {
-                    infoCount = infoCount + 1;
-
-                } else if (testExeDtovar.getStatus().equalsIgnoreCase("EXE")) {
-                    exeCount = exeCount + 1;
-
-                }
-                totalCount = totalCount + 1;
+                statusHistogram.add(testExeDtovar.getStatus());
             }
-
-            statusCount.put("PASS", passCount);
-            statusCount.put("FAIL", failCount);
-            statusCount.put("ERR", errCount);
-            statusCount.put("WARN", warnCount);
-            statusCount.put("INFO", infoCount);
-            statusCount.put("EXE", exeCount);
             Map<String, Object> temp = new HashMap<>();
             temp.put("Project Name",
                     ReportUtils.createCustomObject(
@@ -810,7 +863,7 @@ public class RuleService {
             doughnutSubType.put("subType", "doughnut_chart");
             doughnutSubType.put("heading", "Total Testcase(s)");
             temp.put("TestCase Summary",
-                    ReportUtils.createCustomObject(ReportUtils.createDoughnutChart(statusCount),
+                    ReportUtils.createCustomObject(statusHistogram.toDoughnutChart(StatusHistogram.COUNTED_STATUSES),
                             "chart", totalCount, "center", doughnutSubType));
 
             temp.put("Broken Index", ReportUtils.createCustomObject(brokenIndex, "text", brokenIndex, "center"));
@@ -819,33 +872,31 @@ public class RuleService {
             temp.put("P ID",
                     ReportUtils.createCustomObject(testExeCommonDtoSummeryList.get(0).getP_id(), "text",
                             testExeCommonDtoSummeryList.get(0).getP_id(), "left"));
-            data.add(temp);
+            rows.writeRow(temp);
         }
 
-        result.put("data", data);
-        if (errors != null) {
-            result.put("errors", errors);
-        }
+        result.put("nextCursor", getNextCursorForTestExes(results, sort, sortedColumn));
+        result.put("errors", AsyncUtils.join(errors));
         result.put("totalElements", listMap.size());
 
         return new Response(result, listMap.size() + " Records found", Success);
     }
 
-    private Response createTestCaseDiagnoseReport(RuleApi payload, Integer pageNo, Integer sort,
-                                                  String sortedColumn, Object errors) {
+    private Response createTestCaseDiagnoseReport(RuleApi payload, Integer pageNo, PageCursor cursor, Integer sort,
+                                                  String sortedColumn, CompletableFuture<List<String>> errors,
+                                                  ReportRowWriter rows) {
 
         Map<String, Object> result = new HashMap<>();
         List<Object> headers = new ArrayList<>();
-        List<Map<String, Object>> data = new ArrayList<>();
         Collections.addAll(headers, "Project Name", "TestCase Name", "Environment", "Report Name", "Last Run Status",
                 "Failing Since", "Broken Index", "Downtime", "Average Fix Time", "Last Pass");
-        result.put("headers", headers);
+        rows.writeHeaders(headers);
         if (pageNo != null && pageNo <= 0) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
         }
-        Map<String, Object> resultMap = RestApiUtils.getAllTestExesForTcRunId(payload, pageNo, sort,
-                sortedColumn);
+        Map<String, Object> resultMap = RestApiUtils.getAllTestExesForTcRunId(payload, pageNo, cursor, sort,
+                sortedColumn, true);
         long count = (long) resultMap.get("count");
         List<BasicDBObject> results = (List<BasicDBObject>) resultMap.get("results");
         if (count == 0) {
@@ -873,19 +924,19 @@ public class RuleService {
 
         for (Map.Entry<String, List<TestExeCommonDto>> entry : listMap.entrySet()) {
             List<TestExeCommonDto> testExeCommonDtoDiagnoseList = entry.getValue();
-            List<TestExeCommonDto> sortedList = ReportUtils.getSortedListForTestExeCommon(testExeCommonDtoDiagnoseList);
-            double brokenIndex = ReportUtils.brokenIndexForTestExe(testExeCommonDtoDiagnoseList);
-            String failingSince = ReportUtils.getFailingSinceForTestExeCommon(sortedList, brokenIndex);
-            String lastRunStatus = ReportUtils.lastRunStatusForTestExeCommon(sortedList);
-            Long lastPass = ReportUtils.getLastPassForTestExeCommon(sortedList);
-            String downTime = ReportUtils.getDownTimeForTestExeCommon(sortedList);
+            RunHistoryMetrics metrics = RunHistoryMetrics.ofTestExes(testExeCommonDtoDiagnoseList);
+            double brokenIndex = metrics.getBrokenIndex();
+            String failingSince = ReportUtils.getFailingSince(metrics, brokenIndex);
+            String lastRunStatus = metrics.getLastStatusName();
+            Long lastPass = metrics.getLastPassTime();
+            String downTime = ReportUtils.getDownTimeForTestExeCommon(metrics);
             String averageFixTime;
             if (brokenIndex == 1) {
                 averageFixTime = NEVER_FIXED;
             } else if (brokenIndex == 0) {
                 averageFixTime = "Never Broken";
             } else {
-                averageFixTime = ReportUtils.averageFixTimeForTestExeCommon(testExeCommonDtoDiagnoseList);
+                averageFixTime = ReportUtils.averageFixTimeForTestExeCommon(metrics);
             }
             Map<String, Object> temp = new HashMap<>();
             temp.put("TestCase Name",
@@ -921,19 +972,147 @@ public class RuleService {
             }
             temp.put("Failing Since", ReportUtils.createCustomObject(failingSince, "text", failingSince, "center"));
             temp.put("Downtime", ReportUtils.createCustomObject(downTime, "text", downTime, "center"));
-            data.add(temp);
+            rows.writeRow(temp);
         }
 
-        result.put("data", data);
-        if (errors != null) {
-            result.put("errors", errors);
-        }
+        result.put("nextCursor", getNextCursorForTestExes(results, sort, sortedColumn));
+        result.put("errors", AsyncUtils.join(errors));
         result.put("totalElements", listMap.size());
 
         return new Response(result, listMap.size() + " Records found", Success);
     }
 
-    public Response getRuleActionReportV3(String s_run_id, String tc_run_id, Integer pageNo, Integer sort, String sortedColumn) {
+    /**
+     * Returns the execution report of s_run_id, or of tc_run_id when present.
+     *
+     * @param s_run_id
+     * @param tc_run_id
+     * @param pageNo
+     * @param sort
+     * @param sortedColumn
+     * @param compact      whether the TestCase_Details rows are in CompactTable form, see CompactTable.isCompact
+     * @return Response
+     */
+    public Response getRuleActionReportV3(String s_run_id, String tc_run_id, Integer pageNo, Integer sort, String sortedColumn,
+                                          boolean compact) {
+        Response response = createRuleActionReport(s_run_id, tc_run_id, pageNo, sort, sortedColumn);
+        if (compact && response.getData() instanceof Map) {
+            CompactTable.compact((Map<String, Object>) ((Map<String, Object>) response.getData()).get("TestCase_Details"));
+        }
+        return response;
+    }
+
+    /**
+     * Returns the execution report of s_run_id, or of tc_run_id when present, as the gzipped JSON
+     * snapshot kept in SuiteReportCache, building it on a miss. Returns null when the report is not
+     * kept: for a suite still in EXE (or a test exe of one) or a user without access.
+     *
+     * @param s_run_id
+     * @param tc_run_id
+     * @param pageNo
+     * @param sort
+     * @param sortedColumn
+     * @param compact
+     * @return ByteBuffer
+     */
+    public ByteBuffer getRuleActionReportSnapshot(String s_run_id, String tc_run_id, Integer pageNo, Integer sort,
+                                                  String sortedColumn, boolean compact) {
+        SuiteReportCache.Key key = getRuleActionReportKey(s_run_id, tc_run_id, pageNo, sort, sortedColumn, compact);
+        if (key == null) {
+            return null;
+        }
+        ByteBuffer snapshot = suiteReportCache.get(key);
+        if (snapshot == null) {
+            snapshot = suiteReportCache.put(key, getRuleActionReportV3(s_run_id, tc_run_id, pageNo, sort, sortedColumn, compact));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the ETag of the execution report of s_run_id, or of tc_run_id when present, from the
+     * same inputs as its SuiteReportCache key, or null when it is not versioned: for a suite still in
+     * EXE (or a test exe of one) or a user without access (the report then fails as usual).
+     *
+     * @param s_run_id
+     * @param tc_run_id
+     * @param pageNo
+     * @param sort
+     * @param sortedColumn
+     * @param compact
+     * @return String
+     */
+    public String getRuleActionReportETag(String s_run_id, String tc_run_id, Integer pageNo, Integer sort, String sortedColumn,
+                                          boolean compact) {
+        SuiteReportCache.Key key = getRuleActionReportKey(s_run_id, tc_run_id, pageNo, sort, sortedColumn, compact);
+        return key == null ? null : key.getETag();
+    }
+
+    /**
+     * Returns the SuiteReportCache key of the execution report, or null when it is not kept.
+     */
+    private SuiteReportCache.Key getRuleActionReportKey(String s_run_id, String tc_run_id, Integer pageNo, Integer sort,
+                                                               String sortedColumn, boolean compact) {
+        if (tc_run_id != null) {
+            TestExeDto testExe = RestApiUtils.getTestExe(tc_run_id);
+            SuiteExeDto suiteExe = testExe == null ? null : getFinishedSuiteExe(testExe.getS_run_id());
+            if (suiteExe == null) {
+                return null;
+            }
+            return SuiteReportCache.stepReportKey(suiteExe.getS_run_id(), tc_run_id, suiteExe.getP_id(),
+                    getSuiteReportVersion(suiteExe, testExe));
+        }
+        SuiteExeDto suiteExe = s_run_id == null ? null : getFinishedSuiteExe(s_run_id);
+        if (suiteExe == null) {
+            return null;
+        }
+        ProjectRoleDto projectRole = RestApiUtils.getProjectRoleByPidAndUsername(suiteExe.getP_id(),
+                ReportUtils.getUserDtoFromServetRequest().getUsername());
+        return SuiteReportCache.suiteReportKey(s_run_id, suiteExe.getP_id(), pageNo, sort, sortedColumn, compact,
+                projectRole != null ? projectRole.getRole() : "ADMIN", getSuiteReportVersion(suiteExe, null));
+    }
+
+    /**
+     * Returns the suite exe of s_run_id when it is no longer in EXE and the user has viewer access
+     * to its project, null otherwise.
+     *
+     * @param s_run_id
+     * @return SuiteExeDto
+     */
+    private static SuiteExeDto getFinishedSuiteExe(String s_run_id) {
+        SuiteExeDto suiteExe = RestApiUtils.getSuiteExe(s_run_id);
+        if (suiteExe == null || suiteExe.getStatus() == null || suiteExe.getStatus().equalsIgnoreCase("EXE")) {
+            return null;
+        }
+        ProjectDto project = RestApiUtils.getProjectByPidAndStatus(suiteExe.getP_id(), ACTIVE_STATUS);
+        if (!ReportUtils.validateRoleWithViewerAccess(ReportUtils.getUserDtoFromServetRequest(), project)) {
+            return null;
+        }
+        return suiteExe;
+    }
+
+    /**
+     * Returns the version of the execution report of suiteExe (or of its testExe), which changes with
+     * the suite exe, the test exe, the variance classifications of the suite, the classifications of
+     * its test exes (of the steps of testExe) and the column mappings of its project, all read from
+     * stored data so every instance agrees on it. It is taken once per request.
+     *
+     * @param suiteExe
+     * @param testExe  null for the report of the suite
+     * @return String
+     */
+    private String getSuiteReportVersion(SuiteExeDto suiteExe, TestExeDto testExe) {
+        String key = testExe == null ? suiteExe.getS_run_id() : suiteExe.getS_run_id() + ":" + testExe.getTc_run_id();
+        return RequestMemoUtils.memoize(RequestMemoUtils.REPORT_VERSION_LOOKUP, key, () -> {
+            List<VarianceClassificationDto> variances = suiteExe.getVarianceIds() == null ? Collections.emptyList()
+                    : RestApiUtils.getVarianceClassificationList(suiteExe.getVarianceIds(), ACTIVE_STATUS);
+            List<?> classifications = testExe == null ? ReportUtils.getTestExeClassifications(suiteExe.getS_run_id())
+                    : ReportUtils.getStepClassifications(testExe.getTc_run_id());
+            return ETagUtils.strongETag(suiteExe, testExe, variances, classifications,
+                    columnMappingService.getColumnMappingVersion(suiteExe.getP_id()));
+        });
+    }
+
+    private Response createRuleActionReport(String s_run_id, String tc_run_id, Integer pageNo, Integer sort, String sortedColumn) {
         if (tc_run_id == null) {
 
             if ((sort != null && sortedColumn == null) || (sort == null && sortedColumn != null)) {
@@ -951,6 +1130,7 @@ public class RuleService {
                 throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
             }
 
+            CompletableFuture<UserDto> userFuture = AsyncUtils.supplyAsync(ReportUtils::getUserDtoFromServetRequest);
             SuiteExeDto getSuite = RestApiUtils.getSuiteExe(s_run_id);
 
             if (getSuite == null) {
@@ -958,7 +1138,12 @@ public class RuleService {
                 throw new CustomDataException(SUITE_DETAILS_NOT_FOUND, null, Failure, HttpStatus.NOT_FOUND);
             }
 
-            List<VarianceClassificationDto> varianceClassificationList = RestApiUtils.getVarianceClassificationList(getSuite.getVarianceIds(), ACTIVE_STATUS);
+            CompletableFuture<List<VarianceClassificationDto>> varianceFuture = AsyncUtils.supplyAsync(() ->
+                    RestApiUtils.getVarianceClassificationList(getSuite.getVarianceIds(), ACTIVE_STATUS));
+            ProjectDto project = RestApiUtils.getProjectByPidAndStatus(getSuite.getP_id(), ACTIVE_STATUS);
+            UserDto user1 = AsyncUtils.join(userFuture);
+
+            List<VarianceClassificationDto> varianceClassificationList = AsyncUtils.join(varianceFuture);
             Map<Long, VarianceClassificationDto> varianceList = new HashMap<>();
             List<Long> varianceIds = new ArrayList<>();
             for (VarianceClassificationDto varianceClassification : varianceClassificationList) {
@@ -966,9 +1151,6 @@ public class RuleService {
                 varianceList.put(varianceClassification.getVarianceId(), varianceClassification);
             }
 
-            UserDto user1 = ReportUtils.getUserDtoFromServetRequest();
-
-            ProjectDto project = RestApiUtils.getProjectByPidAndStatus(getSuite.getP_id(), ACTIVE_STATUS);
             if (project == null) {
                 log.error("Error occurred due to records not found");
                 throw new CustomDataException(PROJECT_NOT_EXISTS, null, Failure, HttpStatus.NOT_ACCEPTABLE);
@@ -1081,6 +1263,58 @@ public class RuleService {
         }
     }
 
+    /**
+     * Returns a page of the steps of tc_run_id, see ReportUtils.getStepPage.
+     *
+     * @param tc_run_id
+     * @param offset
+     * @param cursor
+     * @param pageSize
+     * @return Response
+     */
+    public Response getStepPage(String tc_run_id, int offset, String cursor, int pageSize) {
+        return reportUtils.getStepPage(tc_run_id, offset, cursor, pageSize, this::getSteps);
+    }
+
+    /**
+     * Returns the sub steps of the step at stepIndex of tc_run_id.
+     *
+     * @param tc_run_id
+     * @param stepIndex
+     * @return Response
+     */
+    public Response getSubSteps(String tc_run_id, int stepIndex) {
+        return reportUtils.getSubSteps(tc_run_id, stepIndex, this::getSteps);
+    }
+
+    /**
+     * Returns a page of the screenshots of tc_run_id.
+     *
+     * @param tc_run_id
+     * @param offset
+     * @param cursor
+     * @param pageSize
+     * @return Response
+     */
+    public Response getStepGallery(String tc_run_id, int offset, String cursor, int pageSize) {
+        return reportUtils.getStepGallery(tc_run_id, offset, cursor, pageSize, this::getSteps);
+    }
+
+    /**
+     * Returns the steps of tc_run_id, kept in SuiteReportCache under the key of its step report once
+     * its suite is finished.
+     *
+     * @param tc_run_id
+     * @return StepsDto
+     */
+    private StepsDto getSteps(String tc_run_id) {
+        SuiteReportCache.Key key = getRuleActionReportKey(null, tc_run_id, null, null, null, false);
+        if (key == null) {
+            return RestApiUtils.getSteps(tc_run_id);
+        }
+        return suiteReportCache.getSteps(key, () -> RestApiUtils.getSteps(tc_run_id));
+    }
+
     public Response updateBuildDetails(String s_run_id, String buildId, String sprint_name) {
 
         UserDto user = ReportUtils.getUserDtoFromServetRequest();
@@ -1125,6 +1359,7 @@ public class RuleService {
                 throw new CustomDataException("build id or sprint name is missing, one of these is mandatory ", null, Failure, HttpStatus.BAD_REQUEST);
             }
             RestApiUtils.updateSuiteExe(s_run_id, suiteExeDto);
+            suiteReportCache.invalidate(s_run_id);
             Map<String, Object> messageMap = Map.of(s_run_id, "Updated");
             simpMessagingTemplate.convertAndSendToUser(String.valueOf(project.getPid()), "/private", messageMap);
 
@@ -1170,9 +1405,10 @@ public class RuleService {
 
     }
 
-    public Response getSuiteTimeline(Map<String, Object> payload, HttpServletRequest request, String category, String search, Integer pageNo, Integer sort, String sortedColumn) throws ParseException {
+    public Response getSuiteTimeline(Map<String, Object> payload, HttpServletRequest request, String category, String search, Integer pageNo, String cursor, Integer sort, String sortedColumn) throws ParseException {
+        PageCursor pageCursor = PageCursorUtils.decode(cursor, sort, sortedColumn);
 
-        UserDto user1 = ReportUtils.getUserDtoFromServetRequest();
+        CompletableFuture<UserDto> userFuture = AsyncUtils.supplyAsync(ReportUtils::getUserDtoFromServetRequest);
 
         SuiteExeDto getSuite = RestApiUtils.getSuiteExe((String) payload.get("s_run_id"));
 
@@ -1187,6 +1423,7 @@ public class RuleService {
             throw new CustomDataException(PROJECT_NOT_EXISTS, null, Failure, HttpStatus.NOT_ACCEPTABLE);
 
         }
+        UserDto user1 = AsyncUtils.join(userFuture);
         if (!ReportUtils.validateRoleWithViewerAccess(user1, project)) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(USER_NOT_ACCESS_TO_PROJECT, null, Info, HttpStatus.NOT_ACCEPTABLE, REQUEST_ACCESS);
@@ -1206,15 +1443,19 @@ public class RuleService {
             throw new CustomDataException(PAGE_NO_CANNOT_BE_NEGATIVE_OR_ZERO, null, Failure, HttpStatus.OK);
         }
 
-        List<SuiteExeDto> suiteReports = RestApiUtils.getSuiteExesForSuiteTimeline(getSuite.getP_id(), category, getSuite.getEnv(), getSuite.getReport_name(), starttime, endtime, pageNo, sort, sortedColumn);
+        CompletableFuture<SuiteDto> suiteDataFuture = AsyncUtils.supplyAsync(() ->
+                RestApiUtils.getSuiteByReportNameAndStatus(getSuite.getReport_name(), ACTIVE_STATUS));
+
+        List<SuiteExeDto> suiteReports = RestApiUtils.getSuiteExesForSuiteTimeline(getSuite.getP_id(), category, getSuite.getEnv(), getSuite.getReport_name(), starttime, endtime, pageNo, pageCursor, sort, sortedColumn);
         if (suiteReports.isEmpty()) {
             result.put("data", data);
             return new Response(result, NO_RECORDS_FOUND, Success);
         }
-        List<String> sRunIds = RestApiUtils.getS_Run_IdsForSuiteTimeline(getSuite.getP_id(), category, getSuite.getEnv(), getSuite.getReport_name(), starttime, endtime, pageNo, sort, sortedColumn);
 
-        List<TestExeDto> testcaseDetails = RestApiUtils.getTestExeListForS_run_ids(sRunIds);
-        SuiteDto suiteData = RestApiUtils.getSuiteByReportNameAndStatus(getSuite.getReport_name(), ACTIVE_STATUS);
+        List<TestExeSummaryDto> testcaseDetails = RestApiUtils.getTestExeSummaryListForS_run_ids(
+                suiteReports.stream().map(SuiteExeDto::getS_run_id).collect(Collectors.toList()));
+        Map<String, SuiteRunTestExeStats> testExeStats = ReportUtils.groupTestExesByS_run_id(testcaseDetails);
+        SuiteDto suiteData = AsyncUtils.join(suiteDataFuture);
         if (suiteData != null) {
             result.put("s_id", suiteData.getS_id());
         }
@@ -1228,76 +1469,19 @@ public class RuleService {
             actionMap.put("subType", "execution_report");
             temp.put("Action", ReportUtils.createCustomObject(suiteExeDto.getS_run_id(), "action", suiteExeDto.getS_run_id(), "center", actionMap));
 
-            Set<String> baseUserSet = new HashSet<>();
-            Set<String> tokenUserSet = new HashSet<>();
-            Set<String> runTypeSet = new HashSet<>();
-            Set<String> runModeSet = new HashSet<>();
-            Map<String, Object> statusMap = new HashMap<>();
-
-            for (StatusColor statusColor : StatusColor.values()) {
-                statusMap.put(statusColor.toString(), 0L);
-            }
+            SuiteRunTestExeStats stats = testExeStats.getOrDefault(suiteExeDto.getS_run_id(), new SuiteRunTestExeStats());
+            Set<String> baseUserSet = stats.getBaseUsers();
+            Set<String> tokenUserSet = stats.getTokenUsers();
+            Set<String> runTypeSet = stats.getRunTypes();
+            Set<String> runModeSet = stats.getRunModes();
 
             if (!testcaseDetails.isEmpty()) {
-                long totalCount = 0L;
-                for (TestExeDto testExeDto : testcaseDetails) {
-                    if (!testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                        continue;
-                    }
-                    switch (testExeDto.getStatus().toUpperCase()) {
-                        case "PASS":
-                            if (testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                                long value = Long.parseLong(statusMap.get(PASS.toString()).toString()) + 1;
-                                statusMap.put(PASS.toString(), value);
-                                totalCount++;
-                            }
-                            break;
-                        case "FAIL":
-                            if (testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                                long value = Long.parseLong(statusMap.get(FAIL.toString()).toString()) + 1;
-                                statusMap.put(FAIL.toString(), value);
-                                totalCount++;
-                            }
-                            break;
-                        case "EXE":
-                            if (testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                                long value = Long.parseLong(statusMap.get(EXE.toString()).toString()) + 1;
-                                statusMap.put(EXE.toString(), value);
-                                totalCount++;
-                            }
-                            break;
-                        case "ERR":
-                            if (testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                                long value = Long.parseLong(statusMap.get(ERR.toString()).toString()) + 1;
-                                statusMap.put(ERR.toString(), value);
-                                totalCount++;
-                            }
-                            break;
-                        case "INFO":
-                            if (testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                                long value = Long.parseLong(statusMap.get(StatusColor.INFO.toString()).toString()) + 1;
-                                statusMap.put(StatusColor.INFO.toString(), value);
-                                totalCount++;
-                            }
-                            break;
-                        case "WARN":
-                            if (testExeDto.getS_run_id().equals(suiteExeDto.getS_run_id())) {
-                                long value = Long.parseLong(statusMap.get(WARN.toString()).toString()) + 1;
-                                statusMap.put(WARN.toString(), value);
-                                totalCount++;
-                            }
-                            break;
-                    }
-
-                    if (testExeDto.getBase_user() != null) baseUserSet.add(testExeDto.getBase_user());
-                    if (testExeDto.getToken_user() != null) tokenUserSet.addAll(testExeDto.getToken_user());
-                    runTypeSet.add(testExeDto.getRun_type());
-                    runModeSet.add(testExeDto.getRun_mode());
-
-                }
+                StatusHistogram statusHistogram = stats.getStatusHistogram();
+                long totalCount = statusHistogram.getTotal();
                 if ((search != null && !(search.equals("") || search.equalsIgnoreCase("null")) && !verifySearch(search, tokenUserSet))) {
                     continue;
                 }
+                Map<String, Object> statusMap = new HashMap<>(statusHistogram.toMap());
                 HashMap<String, Object> statusSubType = new HashMap<>();
                 statusSubType.put("subType", "timeline_tc");
                 statusMap.put("TOTAL", totalCount);
@@ -1305,7 +1489,7 @@ public class RuleService {
                     statusMap.put("EXE", suiteExeDto.getExpected_testcases() - totalCount);
                 }
                 if (suiteExeDto.getStatus().equalsIgnoreCase("ERR") && totalCount != suiteExeDto.getExpected_testcases()) {
-                    statusMap.put("ERR", Long.parseLong(statusMap.get(ERR.toString()).toString()) + Math.abs(suiteExeDto.getExpected_testcases() - totalCount));
+                    statusMap.put("ERR", statusHistogram.get(ERR) + Math.abs(suiteExeDto.getExpected_testcases() - totalCount));
                 }
                 temp.put("Testcases", ReportUtils.createCustomObject(statusMap, "crud", statusMap, "left", statusSubType));
 
@@ -1319,6 +1503,9 @@ public class RuleService {
         }
         Collections.reverse(data);
         result.put("data", data);
+        result.put("nextCursor", PageCursorUtils.hasNext(suiteReports.size(), SUITE_EXE_PAGE_SIZE, pageNo, pageCursor)
+                ? PageCursorUtils.next(suiteReports.get(suiteReports.size() - 1), "s_start_time", "s_run_id", sort, sortedColumn)
+                : null);
 
         return new Response(result, data.size() + " record(s) fetched successfully", Success);
     }
@@ -0,0 +1,205 @@
+package com.jewel.reportmanager.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class AsyncUtils {
+
+    private static Executor restCallExecutor;
+    private static Executor reportGroupExecutor;
+
+    /**
+     * Wraps the rest call executor so that every task runs with the security context of the
+     * thread that submitted it. RestApiUtils reads the bearer token from that context.
+     *
+     * @param restCallExecutor
+     */
+    @Autowired
+    public void setRestCallExecutor(@Qualifier("restCallExecutor") Executor restCallExecutor) {
+        AsyncUtils.restCallExecutor = new DelegatingSecurityContextExecutor(restCallExecutor);
+    }
+
+    @Autowired
+    public void setReportGroupExecutor(@Qualifier("reportGroupExecutor") Executor reportGroupExecutor) {
+        AsyncUtils.reportGroupExecutor = new DelegatingSecurityContextExecutor(reportGroupExecutor);
+    }
+
+    /**
+     * Starts an upstream call on the rest call executor and returns immediately.
+     *
+     * @param supplier
+     * @return CompletableFuture<T>
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, restCallExecutor);
+    }
+
+    /**
+     * Waits for an upstream call started with supplyAsync. Runtime exceptions thrown by the call
+     * (CustomDataException, HttpClientErrorException, ...) are rethrown unwrapped so callers
+     * handle them exactly as they would for a direct call.
+     *
+     * @param future
+     * @return T
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upstream call", ex);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    /**
+     * Applies mapper to every item on the report group executor, with at most parallelism items
+     * running at once for this call, and returns the results in the order of items. An item is given
+     * onTimeout(item) instead when it runs for more than timeoutMs (counted from when it starts, it is
+     * then interrupted), waits in the queue for more than timeoutMs (it then never runs) or is
+     * rejected by the full executor; any other exception is rethrown as by join.
+     *
+     * @param items
+     * @param mapper
+     * @param parallelism
+     * @param timeoutMs
+     * @param onTimeout
+     * @return List<R>
+     */
+    public static <T, R> List<R> mapBounded(List<T> items, Function<T, R> mapper, int parallelism, long timeoutMs,
+                                            Function<T, R> onTimeout) {
+        Semaphore permits = new Semaphore(Math.max(parallelism, 1));
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a report group", ex);
+            }
+            BoundedTask<T, R> task = new BoundedTask<>(item, mapper, timeoutMs);
+            task.result.whenComplete((result, ex) -> permits.release());
+            try {
+                reportGroupExecutor.execute(task);
+                CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(task::abandonIfPending);
+            } catch (RejectedExecutionException ex) {
+                task.result.completeExceptionally(ex);
+            }
+            futures.add(task.result);
+        }
+        List<R> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a report group", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RejectedExecutionException) {
+                    log.warn("Report group {} rejected, the report group executor is full", items.get(i));
+                } else if (ex.getCause() instanceof TimeoutException) {
+                    log.warn("Report group {} timed out after {} ms", items.get(i), timeoutMs);
+                } else {
+                    throw unwrap(ex.getCause());
+                }
+                results.add(onTimeout.apply(items.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new CompletionException(cause);
+    }
+
+    /**
+     * An item of mapBounded. Its timeout starts when it starts running; once it has timed out (or
+     * was abandoned in the queue) the caller has moved on and the item no longer uses the request.
+     */
+    private static final class BoundedTask<T, R> implements Runnable {
+
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+
+        private final T item;
+        private final Function<T, R> mapper;
+        private final long timeoutMs;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private int state = PENDING;
+        private Thread runner;
+
+        private BoundedTask(T item, Function<T, R> mapper, long timeoutMs) {
+            this.item = item;
+            this.mapper = mapper;
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (state != PENDING) {
+                    return;
+                }
+                state = RUNNING;
+                runner = Thread.currentThread();
+            }
+            CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(this::timeOutIfRunning);
+            try {
+                result.complete(mapper.apply(item));
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            } finally {
+                synchronized (this) {
+                    state = DONE;
+                    runner = null;
+                    // clears an interrupt of timeOutIfRunning, the pool thread goes on with the next task
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized void abandonIfPending() {
+            if (state == PENDING) {
+                state = DONE;
+                result.completeExceptionally(new TimeoutException());
+            }
+        }
+
+        private synchronized void timeOutIfRunning() {
+            if (state == RUNNING) {
+                result.completeExceptionally(new TimeoutException());
+                runner.interrupt();
+            }
+        }
+    }
+
+}
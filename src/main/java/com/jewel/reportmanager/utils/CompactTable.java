@@ -0,0 +1,149 @@
+package com.jewel.reportmanager.utils;
+
+import com.jewel.reportmanager.exception.CustomDataException;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.jewel.reportmanager.enums.OperationType.Failure;
+import static com.jewel.reportmanager.utils.ReportResponseConstants.INVALID_RESPONSE_FORMAT;
+
+/**
+ * Compact (format=compact) form of a table of rows whose cells are built by
+ * ReportUtils.createCustomObject. Instead of a map per cell, "columns" describes every column once:
+ * its name and the type, align, subType, ... of its first cell. Every row of "data" is then an
+ * array with a cell per column, null when the row has no such column:
+ * <ul>
+ * <li>[value, sortValue] for a cell with the metadata of its column,</li>
+ * <li>[value, sortValue, {metadata that differs}] otherwise, null for metadata it does not have,</li>
+ * <li>[value] for a cell that is not a custom object.</li>
+ * </ul>
+ */
+public class CompactTable implements ReportRowWriter {
+
+    public static final String FORMAT = "compact";
+
+    private List<Object> headers = new ArrayList<>();
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    private final List<Map<String, Object>> columns = new ArrayList<>();
+    private final List<List<Object>> data = new ArrayList<>();
+
+    /**
+     * Returns true for format=compact, false when there is no format.
+     *
+     * @param format
+     * @return boolean
+     */
+    public static boolean isCompact(String format) {
+        if (format == null) {
+            return false;
+        }
+        if (!format.equalsIgnoreCase(FORMAT)) {
+            throw new CustomDataException(INVALID_RESPONSE_FORMAT, null, Failure, HttpStatus.BAD_REQUEST);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the "data" rows of table (e.g. TestCase_Details) by their compact form, adding
+     * "columns" and "format". headers and the other entries of table are left as they are.
+     *
+     * @param table
+     */
+    public static void compact(Map<String, Object> table) {
+        if (table == null || !(table.get("data") instanceof List)) {
+            return;
+        }
+        CompactTable compactTable = new CompactTable();
+        for (Map<String, Object> row : (List<Map<String, Object>>) table.get("data")) {
+            compactTable.writeRow(row);
+        }
+        table.put("format", FORMAT);
+        table.put("columns", compactTable.columns);
+        table.put("data", compactTable.data);
+    }
+
+    @Override
+    public void writeHeaders(List<Object> headers) {
+        this.headers = headers;
+        for (Object header : headers) {
+            getColumnIndex(String.valueOf(header));
+        }
+    }
+
+    @Override
+    public void writeRow(Map<String, Object> row) {
+        List<Object> cells = new ArrayList<>(columns.size());
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            int index = getColumnIndex(entry.getKey());
+            while (cells.size() <= index) {
+                cells.add(null);
+            }
+            cells.set(index, toCell(columns.get(index), entry.getValue()));
+        }
+        data.add(cells);
+    }
+
+    /**
+     * Puts the headers, columns and rows in result.
+     *
+     * @param result
+     */
+    public void putInto(Map<String, Object> result) {
+        result.put("format", FORMAT);
+        result.put("headers", headers);
+        result.put("columns", columns);
+        result.put("data", data);
+    }
+
+    private int getColumnIndex(String name) {
+        Integer index = columnIndexes.get(name);
+        if (index == null) {
+            index = columns.size();
+            Map<String, Object> column = new LinkedHashMap<>();
+            column.put("name", name);
+            columns.add(column);
+            columnIndexes.put(name, index);
+        }
+        return index;
+    }
+
+    private static Object toCell(Map<String, Object> column, Object value) {
+        if (!(value instanceof Map) || !((Map<?, ?>) value).containsKey("type")) {
+            return Arrays.asList(value);
+        }
+        Map<String, Object> customObject = (Map<String, Object>) value;
+        if (column.size() == 1) {
+            for (Map.Entry<String, Object> entry : customObject.entrySet()) {
+                if (isMetadata(entry.getKey())) {
+                    column.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        Map<String, Object> diff = new HashMap<>();
+        for (Map.Entry<String, Object> entry : customObject.entrySet()) {
+            if (isMetadata(entry.getKey()) && !Objects.equals(column.get(entry.getKey()), entry.getValue())) {
+                diff.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String key : column.keySet()) {
+            if (isMetadata(key) && !customObject.containsKey(key)) {
+                diff.put(key, null);
+            }
+        }
+        if (diff.isEmpty()) {
+            return Arrays.asList(customObject.get("value"), customObject.get("sortValue"));
+        }
+        return Arrays.asList(customObject.get("value"), customObject.get("sortValue"), diff);
+    }
+
+    private static boolean isMetadata(String key) {
+        return !key.equals("name") && !key.equals("value") && !key.equals("sortValue");
+    }
+}
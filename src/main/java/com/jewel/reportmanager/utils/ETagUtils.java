@@ -0,0 +1,65 @@
+package com.jewel.reportmanager.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Strong ETags of reports derived from the data they are built from (not from the built report),
+ * so a conditional GET whose If-None-Match still matches can be answered with 304 before the
+ * report is built.
+ */
+public class ETagUtils {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private ETagUtils() {
+    }
+
+    /**
+     * Returns the quoted strong ETag of parts, the same for equal parts on every instance.
+     *
+     * @param parts version of the data and every param the report depends on
+     * @return String
+     */
+    public static String strongETag(Object... parts) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(Arrays.asList(parts)));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("ETag could not be computed", ex);
+        }
+    }
+
+    /**
+     * Returns true if the If-None-Match header ifNoneMatch lists eTag (weak comparison) or is *.
+     *
+     * @param ifNoneMatch
+     * @param eTag
+     * @return boolean
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package com.jewel.reportmanager.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewel.reportmanager.dto.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a rule report as newline delimited JSON while it is computed, so no more than one row is
+ * held at a time: {"headers": [...]}, then {"row": {...}} per row, then the Response with the rest
+ * of the result (totalElements, nextCursor, errors, ...) and no headers or data.
+ * <p>
+ * Nothing is written before the first row, so a report that fails before it can still be answered
+ * with the status of the error.
+ */
+public class NdjsonReportRowWriter implements ReportRowWriter {
+
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+    private List<Object> headers = new ArrayList<>();
+    private boolean started;
+
+    public NdjsonReportRowWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void writeHeaders(List<Object> headers) {
+        this.headers = headers;
+    }
+
+    @Override
+    public void writeRow(Map<String, Object> row) {
+        start();
+        writeLine(Collections.singletonMap("row", row));
+    }
+
+    /**
+     * Writes response as the last line, after the headers unless nothing was written and the
+     * report failed.
+     *
+     * @param response
+     * @param failed
+     */
+    public void end(Response response, boolean failed) {
+        if (!failed) {
+            start();
+        }
+        writeLine(response);
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return true once the first line was written
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    private void start() {
+        if (!started) {
+            started = true;
+            writeLine(Collections.singletonMap("headers", headers));
+        }
+    }
+
+    private void writeLine(Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.jewel.reportmanager.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewel.reportmanager.dto.PageCursor;
+import com.jewel.reportmanager.exception.CustomDataException;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.jewel.reportmanager.enums.OperationType.Failure;
+import static com.jewel.reportmanager.utils.ReportResponseConstants.INVALID_CURSOR;
+
+/**
+ * Keyset paging: a page is asked for as the rows after a cursor instead of by pageNo, so deep pages
+ * cost the insertion manager the same as the first one and pages do not shift while new runs are
+ * inserted. Clients get the cursor of the next page as an opaque token (nextCursor) and send it
+ * back as the cursor param with the same sort and sortedColumn.
+ */
+public class PageCursorUtils {
+
+    /**
+     * Rows per page of the insertion manager's paged suite exe endpoints.
+     */
+    public static final int SUITE_EXE_PAGE_SIZE = 8;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PageCursorUtils() {
+    }
+
+    /**
+     * Returns the token of the cursor after row, a DTO or map of the last row of a page.
+     *
+     * @param row
+     * @param defaultColumn column the rows are sorted by when sortedColumn is null
+     * @param idField       unique field of the rows, to break ties of the sorted column
+     * @param sort
+     * @param sortedColumn
+     * @return String
+     */
+    public static String next(Object row, String defaultColumn, String idField, Integer sort, String sortedColumn) {
+        Map<String, Object> fields = objectMapper.convertValue(row, Map.class);
+        Object value = fields.get(sortedColumn == null ? defaultColumn : sortedColumn);
+        Object id = idField == null ? null : fields.get(idField);
+        return encode(new PageCursor(sort, sortedColumn, value, id == null ? null : id.toString()));
+    }
+
+    /**
+     * Returns whether there may be rows after a page of rows rows asked for by pageNo or cursor: a
+     * short page is the last one, and without pageNo and cursor all rows are returned at once.
+     *
+     * @param rows
+     * @param pageSize
+     * @param pageNo
+     * @param cursor
+     * @return boolean
+     */
+    public static boolean hasNext(int rows, int pageSize, Integer pageNo, PageCursor cursor) {
+        return (pageNo != null || cursor != null) && rows >= pageSize;
+    }
+
+    /**
+     * Returns the token of the cursor after value, for rows that are their own sort key (report
+     * names).
+     *
+     * @param value
+     * @param sort
+     * @param sortedColumn
+     * @return String
+     */
+    public static String next(String value, Integer sort, String sortedColumn) {
+        return encode(new PageCursor(sort, sortedColumn, value, null));
+    }
+
+    /**
+     * Returns the cursor of token, or null if there is none.
+     *
+     * @param token
+     * @param sort
+     * @param sortedColumn
+     * @return PageCursor
+     * @throws CustomDataException if token is not a cursor or was made for another sort
+     */
+    public static PageCursor decode(String token, Integer sort, String sortedColumn) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        PageCursor cursor;
+        try {
+            cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(token), PageCursor.class);
+        } catch (IllegalArgumentException | IOException ex) {
+            throw new CustomDataException(INVALID_CURSOR, null, Failure, HttpStatus.BAD_REQUEST);
+        }
+        if (!Objects.equals(cursor.getSort(), sort) || !Objects.equals(cursor.getSortedColumn(), sortedColumn)) {
+            throw new CustomDataException(INVALID_CURSOR, null, Failure, HttpStatus.BAD_REQUEST);
+        }
+        return cursor;
+    }
+
+    private static String encode(PageCursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsString(cursor).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not encode page cursor", ex);
+        }
+    }
+
+}
@@ -33,6 +33,13 @@ public class ReportResponseConstants {
     public static final String SUITE_DETAILS_NOT_FOUND = "Suite details not found !!";
     public static final String MODULE_NOT_VALID = "Module name is Not Valid";
     public static final String PAGE_NUMBER_IS_ABOVE_TOTAL_PAGES = "Page number is above the total no of pages !!";
+    public static final String REPORT_TOTAL_FOUND = "Report total found !!";
+    public static final String REPORT_TOTAL_NOT_COUNTED = "Report total is not counted yet or has expired !!";
+    public static final String INVALID_RESPONSE_FORMAT = "Response format not valid, it can only be compact !!";
+    public static final String INVALID_CURSOR = "Invalid cursor, it does not belong to this sort !!";
+    public static final String INVALID_STEP_PAGE_SIZE = "Page size must be between 1 and 500 !!";
+    public static final String OFFSET_CANNOT_BE_NEGATIVE = "Offset cannot be negative !!";
+    public static final String STEP_NOT_FOUND = "Step not found for this testcase !!";
     public static final String EXE_REPORT_SUCCESSFULLY_FETCHED = "Exe Report details successfully fetched";
     public static final String TESTCASE_DETAILS_NOT_FOUND = "No testcase Details found for this suite!!";
     public static final String TESTCASE_DETAILS_NOT_FOUND_FOR_INTERVAL = "No testcase Details found for this time interval !!";
@@ -46,4 +53,5 @@ public class ReportResponseConstants {
     public static final String DETAILS_FETCHED_SUCCESSFULLY = "Details fetched successfully";
     public static final String REPORT_UPDATED_SUCCESSFULLY = "Report is updated Successfully !!";
     public static final String NO_DATA_FOR_COMPANY = "there is no data for this company";
+    public static final String CACHE_EVICTED_SUCCESSFULLY = "Cache evicted successfully !!";
 }
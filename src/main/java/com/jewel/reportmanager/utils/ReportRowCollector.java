@@ -0,0 +1,35 @@
+package com.jewel.reportmanager.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the headers and rows of a rule report to return them as "headers" and "data" of a single
+ * JSON response.
+ */
+public class ReportRowCollector implements ReportRowWriter {
+
+    private List<Object> headers = new ArrayList<>();
+    private final List<Map<String, Object>> data = new ArrayList<>();
+
+    @Override
+    public void writeHeaders(List<Object> headers) {
+        this.headers = headers;
+    }
+
+    @Override
+    public void writeRow(Map<String, Object> row) {
+        data.add(row);
+    }
+
+    /**
+     * Puts the headers and rows in result.
+     *
+     * @param result
+     */
+    public void putInto(Map<String, Object> result) {
+        result.put("headers", headers);
+        result.put("data", data);
+    }
+}
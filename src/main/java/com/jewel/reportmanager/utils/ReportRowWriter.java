@@ -0,0 +1,15 @@
+package com.jewel.reportmanager.utils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives the headers and then the rows of a rule report as they are computed, see
+ * ReportRowCollector and NdjsonReportRowWriter.
+ */
+public interface ReportRowWriter {
+
+    void writeHeaders(List<Object> headers);
+
+    void writeRow(Map<String, Object> row);
+}
@@ -0,0 +1,112 @@
+package com.jewel.reportmanager.utils;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Writes report snapshots of SuiteReportCache (gzipped JSON of a Response) to the servlet output.
+ * Clients that accept gzip get the snapshot bytes as they are, straight from the heap array or the
+ * mapped segment file; the others get them inflated on the way out, still without deserializing
+ * the report.
+ */
+public class ReportSnapshotUtils {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ReportSnapshotUtils() {
+    }
+
+    /**
+     * Writes snapshot as a 200 JSON response with eTag when present.
+     *
+     * @param snapshot gzipped JSON of a Response, read from its position to its limit
+     * @param eTag
+     * @param request
+     * @param response
+     * @throws IOException
+     */
+    public static void write(ByteBuffer snapshot, String eTag, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        ByteBuffer bytes = snapshot.duplicate();
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(bytes.remaining());
+            Channels.newChannel(response.getOutputStream()).write(bytes);
+            return;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteBufferInputStream(bytes), BUFFER_SIZE)) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * @return whether an Accept-Encoding header value allows gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].replace(" ", "").matches("[qQ]=0(\\.0*)?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer bytes;
+
+        private ByteBufferInputStream(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() {
+            return bytes.hasRemaining() ? bytes.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (!bytes.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, bytes.remaining());
+            bytes.get(buffer, offset, count);
+            return count;
+        }
+    }
+
+}
@@ -1,21 +1,25 @@
 package com.jewel.reportmanager.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
+import com.jewel.reportmanager.cache.AuthorizationCache;
+import com.jewel.reportmanager.cache.UserCache;
 import com.jewel.reportmanager.dto.*;
+import com.jewel.reportmanager.entity.SuiteSummaryBucket;
 import com.jewel.reportmanager.enums.OperationType;
 import com.jewel.reportmanager.enums.StatusColor;
 import com.jewel.reportmanager.enums.UserRole;
 import com.jewel.reportmanager.exception.CustomDataException;
 import com.jewel.reportmanager.service.ColumnMappingService;
 import com.mongodb.BasicDBObject;
+import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
 import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -29,9 +33,9 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.lang.reflect.Type;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.jewel.reportmanager.enums.OperationType.*;
@@ -47,14 +51,35 @@ public class ReportUtils {
     private static String userManagerUrl;
     private static String projectManagerUrl;
     private static MongoOperations mongoOperations;
-    private static RestTemplate restTemplate;
+    private static RestTemplate userManagerRestTemplate;
+    private static RestTemplate projectManagerRestTemplate;
+    private static UserCache userCache;
+    private static AuthorizationCache authorizationCache;
+    private static final ObjectMapper stepMapper = new ObjectMapper();
+    private static final int MAX_STEP_PAGE_SIZE = 500;
+    private static final int STEP_VARIANCE_BATCH_SIZE = 1000;
 
     @Autowired
     private ColumnMappingService columnMappingService;
 
     @Autowired
-    public void setRestTemplate(RestTemplate restTemplate) {
-        ReportUtils.restTemplate = restTemplate;
+    public void setUserManagerRestTemplate(@Qualifier("userManagerRestTemplate") RestTemplate userManagerRestTemplate) {
+        ReportUtils.userManagerRestTemplate = userManagerRestTemplate;
+    }
+
+    @Autowired
+    public void setProjectManagerRestTemplate(@Qualifier("projectManagerRestTemplate") RestTemplate projectManagerRestTemplate) {
+        ReportUtils.projectManagerRestTemplate = projectManagerRestTemplate;
+    }
+
+    @Autowired
+    public void setUserCache(UserCache userCache) {
+        ReportUtils.userCache = userCache;
+    }
+
+    @Autowired
+    public void setAuthorizationCache(AuthorizationCache authorizationCache) {
+        ReportUtils.authorizationCache = authorizationCache;
     }
 
     @Value("${user.manager.url}")
@@ -138,20 +163,183 @@ public class ReportUtils {
     }
 
     public Response getResultWithTcRunId(String tc_run_id) {
-        ObjectMapper oMapper = new ObjectMapper();
         Map<String, Object> stepData = new HashMap<>();
         Set<String> stepsListHeaders = new HashSet<>();
         List<Map<String, Object>> stepsVariableValue = new ArrayList<>();
 
+        StepReport stepReport = loadStepReport(tc_run_id, RestApiUtils::getSteps);
+        TestExeDto tempTest = stepReport.testExe;
+        Map<String, Object> statusSubType = new HashMap<>();
+        statusSubType.put("subType", "falseVariance");
+        List<Map<String, Object>> gallery = new ArrayList<>();
+        List<Map<String, Object>> metaData = tempTest.getMeta_data();
+        if (stepReport.steps != null) {
+            List<String> statuesList = new ArrayList<>();
+            for (Object step : stepReport.steps) {
+                Map<String, Object> stepMap = toStepMap(step);
+                stepsListHeaders.addAll(stepMap.keySet());
+                Map<String, Object> temp = createStepRow(stepMap, stepReport.testLevel.ofStep(stepMap, stepReport.varianceList),
+                        statusSubType, statuesList, gallery, true);
+                temp.put("PRODUCT TYPE", ReportUtils.createCustomObject(tempTest.getProduct_type(), "text", tempTest.getProduct_type(),
+                        "left"));
+                stepsVariableValue.add(temp);
+            }
+            metaData = createMetaData(tempTest, statuesList);
+        }
+
+        stepData.put("headers", createStepHeaders(stepsListHeaders));
+        stepData.put("metaData", metaData);
+        stepData.put("gallery", gallery);
+        stepData.put("data", stepsVariableValue);
+        stepData.put("tc_run_id", tc_run_id);
+
+        return new Response(stepData, DATA_FETCHED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Returns a page of the step report of tc_run_id: the rows of pageSize steps from offset (or
+     * cursor) with their sub steps collapsed to SUB_STEPS {count, stepIndex}, and no gallery. The
+     * headers and the status totals in metaData are those of the whole test, taken from the steps
+     * without building their rows. Sub steps and screenshots are fetched on expand, see getSubSteps
+     * and getStepGallery.
+     *
+     * @param tc_run_id
+     * @param offset
+     * @param cursor      nextCursor of the previous page, replaces offset when present
+     * @param pageSize
+     * @param stepsLoader loads the steps of a tc_run_id once access is checked
+     * @return Response
+     */
+    public Response getStepPage(String tc_run_id, int offset, String cursor, int pageSize, Function<String, StepsDto> stepsLoader) {
+        offset = getStepOffset(offset, cursor, pageSize);
+        StepReport stepReport = loadStepReport(tc_run_id, stepsLoader);
+        TestExeDto tempTest = stepReport.testExe;
+        List<Object> steps = stepReport.steps != null ? stepReport.steps : Collections.emptyList();
+
+        Set<String> stepsListHeaders = new HashSet<>();
+        List<String> statuesList = new ArrayList<>();
+        long galleryCount = 0;
+        for (Object step : steps) {
+            Map<String, Object> stepMap = toStepMap(step);
+            stepsListHeaders.addAll(stepMap.keySet());
+            String status = stepReport.testLevel.statusOfStep(stepMap, stepReport.varianceList);
+            if (status != null) {
+                statuesList.add(status);
+            }
+            galleryCount += forEachScreenshot(stepMap, null);
+        }
+        List<Map<String, Object>> metaData = stepReport.steps != null ? createMetaData(tempTest, statuesList) : tempTest.getMeta_data();
+
+        Map<String, Object> statusSubType = new HashMap<>();
+        statusSubType.put("subType", "falseVariance");
+        List<Map<String, Object>> stepsVariableValue = new ArrayList<>();
+        int end = getStepPageEnd(offset, pageSize, steps.size());
+        for (int i = offset; i < end; i++) {
+            Map<String, Object> stepMap = toStepMap(steps.get(i));
+            Map<String, Object> temp = createStepRow(stepMap, stepReport.testLevel.ofStep(stepMap, stepReport.varianceList),
+                    statusSubType, new ArrayList<>(), null, false);
+            Object subSteps = stepMap.get("sub_step");
+            if (subSteps instanceof List) {
+                Map<String, Object> subStepsData = new HashMap<>();
+                subStepsData.put("count", ((List<?>) subSteps).size());
+                subStepsData.put("stepIndex", i);
+                temp.put("SUB_STEPS", subStepsData);
+            }
+            temp.put("PRODUCT TYPE", ReportUtils.createCustomObject(tempTest.getProduct_type(), "text", tempTest.getProduct_type(),
+                    "left"));
+            stepsVariableValue.add(temp);
+        }
+
+        Map<String, Object> stepData = new HashMap<>();
+        stepData.put("headers", createStepHeaders(stepsListHeaders));
+        stepData.put("metaData", metaData);
+        stepData.put("data", stepsVariableValue);
+        stepData.put("tc_run_id", tc_run_id);
+        stepData.put("offset", offset);
+        stepData.put("pageSize", pageSize);
+        stepData.put("totalSteps", steps.size());
+        stepData.put("galleryCount", galleryCount);
+        stepData.put("nextCursor", end < steps.size() ? PageCursorUtils.next(String.valueOf(end), null, null) : null);
+
+        return new Response(stepData, DATA_FETCHED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Returns the SUB_STEPS table of the step at stepIndex of tc_run_id, with the screenshots of
+     * its sub steps as gallery.
+     *
+     * @param tc_run_id
+     * @param stepIndex
+     * @param stepsLoader loads the steps of a tc_run_id once access is checked
+     * @return Response
+     */
+    public Response getSubSteps(String tc_run_id, int stepIndex, Function<String, StepsDto> stepsLoader) {
+        StepReport stepReport = loadStepReport(tc_run_id, stepsLoader);
+        if (stepReport.steps == null || stepIndex < 0 || stepIndex >= stepReport.steps.size()) {
+            log.error("Error occurred due to records not found");
+            throw new CustomDataException(STEP_NOT_FOUND, null, Failure, HttpStatus.NOT_FOUND);
+        }
+        Map<String, Object> stepMap = toStepMap(stepReport.steps.get(stepIndex));
+        Map<String, Object> statusSubType = new HashMap<>();
+        statusSubType.put("subType", "falseVariance");
+        List<Map<String, Object>> gallery = new ArrayList<>();
+        List<Map<String, Object>> subSteps = stepMap.get("sub_step") instanceof List
+                ? (List<Map<String, Object>>) stepMap.get("sub_step") : Collections.emptyList();
+        Map<String, Object> subStepsData = createSubStepsTable(subSteps,
+                stepReport.testLevel.ofStep(stepMap, stepReport.varianceList), statusSubType, gallery);
+        subStepsData.put("gallery", gallery);
+        subStepsData.put("stepIndex", stepIndex);
+        subStepsData.put("tc_run_id", tc_run_id);
+
+        return new Response(subStepsData, DATA_FETCHED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Returns pageSize screenshots of the gallery of tc_run_id from offset (or cursor), in the order
+     * of the full step report.
+     *
+     * @param tc_run_id
+     * @param offset
+     * @param cursor      nextCursor of the previous page, replaces offset when present
+     * @param pageSize
+     * @param stepsLoader loads the steps of a tc_run_id once access is checked
+     * @return Response
+     */
+    public Response getStepGallery(String tc_run_id, int offset, String cursor, int pageSize, Function<String, StepsDto> stepsLoader) {
+        offset = getStepOffset(offset, cursor, pageSize);
+        StepReport stepReport = loadStepReport(tc_run_id, stepsLoader);
+        List<Map<String, Object>> gallery = new ArrayList<>();
+        if (stepReport.steps != null) {
+            for (Object step : stepReport.steps) {
+                forEachScreenshot(toStepMap(step), gallery);
+            }
+        }
+        int end = getStepPageEnd(offset, pageSize, gallery.size());
+
+        Map<String, Object> galleryData = new HashMap<>();
+        galleryData.put("gallery", offset < end ? new ArrayList<>(gallery.subList(offset, end)) : Collections.emptyList());
+        galleryData.put("tc_run_id", tc_run_id);
+        galleryData.put("offset", offset);
+        galleryData.put("pageSize", pageSize);
+        galleryData.put("galleryCount", gallery.size());
+        galleryData.put("nextCursor", end < gallery.size() ? PageCursorUtils.next(String.valueOf(end), null, null) : null);
+
+        return new Response(galleryData, DATA_FETCHED_SUCCESSFULLY, Success);
+    }
+
+    /**
+     * Returns the test exe, variances and steps of tc_run_id once the user is checked to have access
+     * to its project, the steps from stepsLoader.
+     */
+    private static StepReport loadStepReport(String tc_run_id, Function<String, StepsDto> stepsLoader) {
         TestExeDto tempTest = RestApiUtils.getTestExe(tc_run_id);
         if (tempTest == null) {
             log.error("Error occurred due to records not found");
             throw new CustomDataException(TESTCASE_DETAILS_NOT_FOUND, null, Failure, HttpStatus.OK);
         }
 
-        String username = ReportUtils.getUserDtoFromServetRequest().getUsername();
-
         UserDto user = ReportUtils.getUserDtoFromServetRequest();
+        String username = user.getUsername();
 
         SuiteExeDto getSuite = RestApiUtils.getSuiteExe(tempTest.getS_run_id());
         if (getSuite == null) {
@@ -176,243 +364,417 @@ public class ReportUtils {
         for (VarianceClassificationDto varianceClassification : varianceClassificationList) {
             varianceList.put(varianceClassification.getVarianceId(), varianceClassification);
         }
-        boolean varianceIsActiveAtTestLevel = false;
-        boolean falsePositiveIsActiveAtTestLevel = false;
-        boolean varianceIsThereAtTestLevel = false;
-        boolean falsePositiveIsThereAtTestLevel = false;
-        String statusTestLevel = null;
-        if (tempTest.getVarianceId() != null) {
-            varianceIsThereAtTestLevel = true;
+        StepsDto steps = stepsLoader.apply(tc_run_id);
+        return new StepReport(tempTest, varianceList, StepClassification.ofTestExe(tempTest, varianceList),
+                steps != null ? steps.getSteps() : null);
+    }
+
+    /**
+     * Returns the end (exclusive) of the page of pageSize from offset of size rows, counted in long
+     * so an offset near Integer.MAX_VALUE cannot wrap around; size when the page runs past the end,
+     * so an offset at or past size gives an empty page without a next cursor.
+     *
+     * @param offset
+     * @param pageSize
+     * @param size
+     * @return int
+     */
+    private static int getStepPageEnd(int offset, int pageSize, int size) {
+        return (int) Math.min((long) offset + pageSize, size);
+    }
+
+    /**
+     * Returns the offset of a page of steps or screenshots.
+     *
+     * @param offset
+     * @param cursor   replaces offset when present
+     * @param pageSize
+     * @return int
+     */
+    private static int getStepOffset(int offset, String cursor, int pageSize) {
+        if (pageSize <= 0 || pageSize > MAX_STEP_PAGE_SIZE) {
+            log.error("Error occurred due to invalid page size: {}", pageSize);
+            throw new CustomDataException(INVALID_STEP_PAGE_SIZE, null, Failure, HttpStatus.BAD_REQUEST);
+        }
+        PageCursor pageCursor = PageCursorUtils.decode(cursor, null, null);
+        if (pageCursor != null) {
+            try {
+                offset = Integer.parseInt(String.valueOf(pageCursor.getValue()));
+            } catch (NumberFormatException ex) {
+                throw new CustomDataException(INVALID_CURSOR, null, Failure, HttpStatus.BAD_REQUEST);
+            }
+        }
+        if (offset < 0) {
+            log.error("Error occurred due to negative offset: {}", offset);
+            throw new CustomDataException(OFFSET_CANNOT_BE_NEGATIVE, null, Failure, HttpStatus.BAD_REQUEST);
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the metaData of testExe with the status totals of the steps as its third entry. The
+     * metaData of testExe is left as it is, the test exe is shared by the request.
+     *
+     * @param testExe
+     * @param statuses status of every step
+     * @return List
+     */
+    private static List<Map<String, Object>> createMetaData(TestExeDto testExe, List<String> statuses) {
+        Map<String, Object> testcase_info = new HashMap<>();
+        for (String status : statuses) {
+
+            testcase_info.put(status.toUpperCase(),
+                    Long.parseLong(testcase_info.getOrDefault(status.toUpperCase(), 0L).toString()) + 1);
+
+        }
+        if (!testcase_info.isEmpty()) {
+            testcase_info.put("TOTAL", (long) statuses.size());
         }
-        if(varianceList.get(tempTest.getVarianceId()) != null) {
-            varianceIsActiveAtTestLevel = true;
-            statusTestLevel = "PASS";
+        if (testExe.getMeta_data() == null || testExe.getMeta_data().size() < 3) {
+            return testExe.getMeta_data();
         }
-        if (tempTest.getClassificationDetails() != null) {
-            falsePositiveIsThereAtTestLevel = true;
-            if (tempTest.getClassificationDetails().isFalsePositiveStatus()) {
-                falsePositiveIsActiveAtTestLevel = true;
-                statusTestLevel = "PASS";
+        List<Map<String, Object>> metaData = new ArrayList<>(testExe.getMeta_data());
+        metaData.set(2, testcase_info);
+        return metaData;
+    }
+
+    private static List<String> createStepHeaders(Set<String> stepsListHeaders) {
+        stepsListHeaders.remove("sub_step");
+        stepsListHeaders.remove("tc_run_id");
+        stepsListHeaders.remove("s_run_id");
+        stepsListHeaders.remove("CLASSIFICATIONDETAILS");
+        stepsListHeaders.remove("VARIANCEID");
+        return ReportUtils.headersDataStepRefactor(stepsListHeaders);
+    }
+
+    /**
+     * Adds the screenshots of a step and of its sub steps to gallery, when not null.
+     *
+     * @param stepMap
+     * @param gallery
+     * @return the number of screenshots
+     */
+    private static int forEachScreenshot(Map<String, Object> stepMap, List<Map<String, Object>> gallery) {
+        int count = 0;
+        if (stepMap.get("screenshot") != null) {
+            addToGallery(stepMap, stepMap.get("screenshot"), gallery);
+            count++;
+        }
+        if (stepMap.get("sub_step") instanceof List) {
+            for (Map<String, Object> subStep : (List<Map<String, Object>>) stepMap.get("sub_step")) {
+                if (subStep.get("screenshot") != null) {
+                    addToGallery(subStep, subStep.get("screenshot"), gallery);
+                    count++;
+                }
             }
         }
-        Map<String, Object> statusSubType = new HashMap<>();
-        statusSubType.put("subType", "falseVariance");
-        List<Map<String, Object>> gallery = new ArrayList<>();
-        StepsDto steps = RestApiUtils.getSteps(tc_run_id);
-        if (steps != null) {
-            List<String> statuesList = new ArrayList<>();
-            for (Object step : steps.getSteps()) {
-                boolean clickable = false;
-                boolean varianceIsActive = varianceIsActiveAtTestLevel;
-                boolean varianceIsThere = varianceIsThereAtTestLevel;
-                boolean falsePositiveIsActive = falsePositiveIsActiveAtTestLevel;
-                boolean falsePositiveIsThere = falsePositiveIsThereAtTestLevel;
-                Map<String, Object> stepMap = oMapper.convertValue(step, Map.class);
-                stepsListHeaders.addAll(stepMap.keySet());
-                stepsListHeaders.remove("tc_run_id");
-                stepsListHeaders.remove("s_run_id");
-                Map<String, Object> temp = new HashMap<>();
-                for (String key : stepsListHeaders) {
-                    String status = statusTestLevel;
-                    String subStepStatus = statusTestLevel;
-                    ClassificationDetails classificationDetails = null;
-                    if (stepsListHeaders.contains("VARIANCEID")) {
-                        Long varianceId = (Long) stepMap.get("VARIANCEID");
-                        varianceIsThere = true;
-                        if(varianceList.get(varianceId) != null) {
-                            clickable = true;
-                            varianceIsActive = true;
-                            status = "PASS";
-                            subStepStatus = "PASS";
-                        }
-                    }
-                    if (stepsListHeaders.contains("CLASSIFICATIONDETAILS")) {
-                        falsePositiveIsThere = true;
-                        classificationDetails = oMapper.convertValue(stepMap.get("CLASSIFICATIONDETAILS"), ClassificationDetails.class);
-                        if (classificationDetails != null && classificationDetails.isFalsePositiveStatus()) {
-                            clickable = true;
-                            falsePositiveIsActive = true;
-                            subStepStatus = "Pass";
-                        }
-                    }
+        return count;
+    }
 
-                    if (key.equalsIgnoreCase("sub_step")) {
-                        if(stepMap.get("sub_step") != null) {
-                            List<Map<String, Object>> subStepsVariableValue = new ArrayList<>();
-                            List<Map<String, Object>> maps = (List<Map<String, Object>>) stepMap.get(key);
-                            Set<String> subStepsHeaders = new HashSet<>();
-                            for (Map<String, Object> map1 : maps) {
-                                Map<String, Object> subStepsTemp = new HashMap<>();
-                                subStepsHeaders.addAll(map1.keySet());
-                                for (String key2 : subStepsHeaders) {
-                                    if (key2.equalsIgnoreCase("start_time") || key2.equalsIgnoreCase("end_time")) {
-                                        Map<String, Object> timeReport = new HashMap<>();
-                                        timeReport.put("subType", "datetime");
-                                        subStepsTemp.put(ReportUtils.changeKeyValue(key2),
-                                                ReportUtils.createCustomObject(map1.get(key2), "date", map1.get(key2),
-                                                        "center", timeReport));
-                                    } else if (key2.equalsIgnoreCase("status")) {
-                                        if (subStepStatus != null) {
-                                            subStepsTemp.put(ReportUtils.changeKeyValue(key2),
-                                                    ReportUtils.createCustomObject(subStepStatus, "crud", subStepStatus,
-                                                            "center", statusSubType));
-                                        } else {
-                                            subStepsTemp.put(ReportUtils.changeKeyValue(key2),
-                                                    ReportUtils.createCustomObject(map1.get(key2), "crud", map1.get(key2),
-                                                            "center", statusSubType));
-                                        }
-                                        subStepsTemp.put("EDIT_ICON", ReportUtils.createCustomObject("INACTIVE", "text", "INACTIVE", "left"));
-                                        if (map1.get(key2) != null && (map1.get(key2).toString().equalsIgnoreCase("ERR") || map1.get(key2).toString().equalsIgnoreCase("FAIL")) || (classificationDetails != null && classificationDetails.isFalsePositiveStatus())) {
-                                            if (varianceIsActive) {
-                                                subStepsTemp.put("ISCLICKABLE", ReportUtils.createCustomObject(false, "text", false, "left"));
-                                                subStepsTemp.put("ICON", ReportUtils.createCustomObject("VARIANCE_ACTIVE", "text", "VARIANCE_ACTIVE", "left"));
-                                            } else if (falsePositiveIsActive && classificationDetails != null) {
-                                                subStepsTemp.put("ISCLICKABLE", ReportUtils.createCustomObject(false, "text", false, "left"));
-                                                subStepsTemp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_ACTIVE", "text", "FALSE_POSITIVE_ACTIVE", "left"));
-                                                if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
-                                                    subStepsTemp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
-                                            } else if (varianceIsThere) {
-                                                subStepsTemp.put("ICON", ReportUtils.createCustomObject("VARIANCE_INACTIVE", "text", "VARIANCE_INACTIVE", "left"));
-                                            } else if (falsePositiveIsThere && classificationDetails != null) {
-                                                subStepsTemp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_INACTIVE", "text", "FALSE_POSITIVE_INACTIVE", "left"));
-                                                if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
-                                                    subStepsTemp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
-                                            }
-                                        }
-
-                                    } else if (key2.equalsIgnoreCase("screenshot")) {
-                                        subStepsTemp.put(ReportUtils.changeKeyValue(key2),
-                                                ReportUtils.createCustomObject(map1.get(key2), "image",
-                                                        map1.get(key2),
-                                                        "center"));
-                                        Map<String, Object> screenshot = new HashMap<>();
-                                        if (map1.get(key2) != null) {
-                                            if (map1.get("step name") != null) {
-                                                screenshot.put(map1.get("step name").toString(), (map1.get(key2)));
-                                            } else {
-                                                screenshot.put(map1.get("title").toString(), (map1.get(key2)));
-                                            }
-                                            gallery.add(screenshot);
-                                        }
-
-                                    } else {
-                                        subStepsTemp.put(ReportUtils.changeKeyValue(key2),
-                                                ReportUtils.createCustomObject(map1.get(key2), "text", map1.get(key2),
-                                                        "left"));
-                                    }
-
-                                }
-                                subStepsVariableValue.add(subStepsTemp);
-                            }
-                            Map<String, Object> subStepsData = new HashMap<>();
-                            subStepsData.put("data", subStepsVariableValue);
-                            subStepsData.put("headers", ReportUtils.headersDataStepRefactor(subStepsHeaders));
-                            temp.put("SUB_STEPS", subStepsData);
-                        }
-                        continue;
-                    }
+    /**
+     * Returns the row of a step of the step report, built from the keys of the step only. Its sub
+     * steps are built in the same pass, and the screenshots of both go to gallery.
+     *
+     * @param stepMap
+     * @param classification variance and false positive state of the step
+     * @param statusSubType
+     * @param statuses       status of the step is added to it
+     * @param gallery        null to leave the screenshots out
+     * @param expandSubSteps false to leave SUB_STEPS out
+     * @return Map
+     */
+    private static Map<String, Object> createStepRow(Map<String, Object> stepMap, StepClassification classification,
+                                                     Map<String, Object> statusSubType, List<String> statuses,
+                                                     List<Map<String, Object>> gallery, boolean expandSubSteps) {
+        Map<String, Object> temp = new HashMap<>();
+        ClassificationDetails classificationDetails = classification.classificationDetails;
+        for (Map.Entry<String, Object> entry : stepMap.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (key.equals("tc_run_id") || key.equals("s_run_id") || key.equals("CLASSIFICATIONDETAILS")) {
+                continue;
+            }
+            if (key.equalsIgnoreCase("sub_step")) {
+                if (value != null && expandSubSteps) {
+                    temp.put("SUB_STEPS", createSubStepsTable((List<Map<String, Object>>) value, classification, statusSubType, gallery));
+                }
+                continue;
+            }
 
-                    if (key.equalsIgnoreCase("start_time") || key.equalsIgnoreCase("end_time")) {
-                        Map<String, Object> timeReport = new HashMap<>();
-                        timeReport.put("subType", "datetime");
-                        temp.put(ReportUtils.changeKeyValue(key),
-                                ReportUtils.createCustomObject(stepMap.get(key), "date", stepMap.get(key),
-                                        "center", timeReport));
-                    } else if (key.equalsIgnoreCase("status")) {
-                        if (status != null) {
-                            statuesList.add(status);
-                            temp.put(ReportUtils.changeKeyValue(key),
-                                    ReportUtils.createCustomObject(status, "status", status,
-                                            "center"));
-
-                            if (status.equalsIgnoreCase("FAIL") || status.equalsIgnoreCase("ERR") && !varianceIsActive && !falsePositiveIsActive) {
-                                temp.put("EDIT_ICON", ReportUtils.createCustomObject(ACTIVE_STATUS, "text", ACTIVE_STATUS, "left"));
-                            } else {
-                                temp.put("EDIT_ICON", ReportUtils.createCustomObject("INACTIVE", "text", "INACTIVE", "left"));
-                            }
-                        } else {
-                            String stepStatus = (String) stepMap.get(key);
-                            statuesList.add(stepStatus);
-                            temp.put(ReportUtils.changeKeyValue(key),
-                                    ReportUtils.createCustomObject(stepStatus, "status", stepStatus,
-                                            "center"));
-
-                            if (stepStatus.equalsIgnoreCase("FAIL") || stepStatus.equalsIgnoreCase("ERR") && !varianceIsActive && !falsePositiveIsActive) {
-                                temp.put("EDIT_ICON", ReportUtils.createCustomObject(ACTIVE_STATUS, "text", ACTIVE_STATUS, "left"));
-                            } else {
-                                temp.put("EDIT_ICON", ReportUtils.createCustomObject("INACTIVE", "text", "INACTIVE", "left"));
-                            }
-                        }
+            if (key.equalsIgnoreCase("start_time") || key.equalsIgnoreCase("end_time")) {
+                Map<String, Object> timeReport = new HashMap<>();
+                timeReport.put("subType", "datetime");
+                temp.put(ReportUtils.changeKeyValue(key),
+                        ReportUtils.createCustomObject(value, "date", value,
+                                "center", timeReport));
+            } else if (key.equalsIgnoreCase("status")) {
+                String status = classification.status != null ? classification.status : (String) value;
+                if (status != null) {
+                    statuses.add(status);
+                }
+                temp.put(ReportUtils.changeKeyValue(key),
+                        ReportUtils.createCustomObject(status, "status", status,
+                                "center"));
+                if (status != null && (status.equalsIgnoreCase("FAIL") || status.equalsIgnoreCase("ERR") && !classification.varianceIsActive && !classification.falsePositiveIsActive)) {
+                    temp.put("EDIT_ICON", ReportUtils.createCustomObject(ACTIVE_STATUS, "text", ACTIVE_STATUS, "left"));
+                } else {
+                    temp.put("EDIT_ICON", ReportUtils.createCustomObject("INACTIVE", "text", "INACTIVE", "left"));
+                }
 
-                        if ((stepMap.get(key).toString() != null && (stepMap.get(key).toString().equalsIgnoreCase("ERR") || stepMap.get(key).toString().equalsIgnoreCase("FAIL"))) || (classificationDetails != null && classificationDetails.isFalsePositiveStatus())) {
-                            if (varianceIsActive) {
-                                temp.put("ISCLICKABLE", ReportUtils.createCustomObject(clickable, "text", clickable, "left"));
-                                temp.put("ICON", ReportUtils.createCustomObject("VARIANCE_ACTIVE", "text", "VARIANCE_ACTIVE", "left"));
-                            } else if (falsePositiveIsActive && classificationDetails != null && classificationDetails.isFalsePositiveStatus()) {
-                                temp.put("ISCLICKABLE", ReportUtils.createCustomObject(clickable, "text", clickable, "left"));
-                                temp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_ACTIVE", "text", "FALSE_POSITIVE_ACTIVE", "left"));
-                                if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
-                                    temp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
-                            } else if (varianceIsThere) {
-                                temp.put("ICON", ReportUtils.createCustomObject("VARIANCE_INACTIVE", "text", "VARIANCE_INACTIVE", "left"));
-                            } else if (falsePositiveIsThere && classificationDetails != null) {
-                                temp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_INACTIVE", "text", "FALSE_POSITIVE_INACTIVE", "left"));
-                                if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
-                                    temp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
-                            }
-                        }
-                    } else if (key.equalsIgnoreCase("screenshot")) {
-                        temp.put(ReportUtils.changeKeyValue(key),
-                                ReportUtils.createCustomObject(stepMap.get(key), "image",
-                                        stepMap.get(key),
-                                        "center"));
-                        Map<String, Object> screenshot = new HashMap<>();
-                        if (stepMap.get(key) != null) {
-                            if (stepMap.get("step name") != null) {
-                                screenshot.put(stepMap.get("step name").toString(), (stepMap.get(key)));
-                            } else {
-                                screenshot.put(stepMap.get("title").toString(), (stepMap.get(key)));
-                            }
-                            gallery.add(screenshot);
+                if ((value != null && (value.toString().equalsIgnoreCase("ERR") || value.toString().equalsIgnoreCase("FAIL"))) || (classificationDetails != null && classificationDetails.isFalsePositiveStatus())) {
+                    if (classification.varianceIsActive) {
+                        temp.put("ISCLICKABLE", ReportUtils.createCustomObject(classification.clickable, "text", classification.clickable, "left"));
+                        temp.put("ICON", ReportUtils.createCustomObject("VARIANCE_ACTIVE", "text", "VARIANCE_ACTIVE", "left"));
+                    } else if (classification.falsePositiveIsActive && classificationDetails != null && classificationDetails.isFalsePositiveStatus()) {
+                        temp.put("ISCLICKABLE", ReportUtils.createCustomObject(classification.clickable, "text", classification.clickable, "left"));
+                        temp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_ACTIVE", "text", "FALSE_POSITIVE_ACTIVE", "left"));
+                        if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
+                            temp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
+                    } else if (classification.varianceIsThere) {
+                        temp.put("ICON", ReportUtils.createCustomObject("VARIANCE_INACTIVE", "text", "VARIANCE_INACTIVE", "left"));
+                    } else if (classification.falsePositiveIsThere && classificationDetails != null) {
+                        temp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_INACTIVE", "text", "FALSE_POSITIVE_INACTIVE", "left"));
+                        if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
+                            temp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
+                    }
+                }
+            } else if (key.equalsIgnoreCase("screenshot")) {
+                temp.put(ReportUtils.changeKeyValue(key),
+                        ReportUtils.createCustomObject(value, "image",
+                                value,
+                                "center"));
+                addToGallery(stepMap, value, gallery);
+            } else {
+                temp.put(ReportUtils.changeKeyValue(key),
+                        ReportUtils.createCustomObject(value, "text", value,
+                                "left"));
+            }
+        }
+        return temp;
+    }
+
+    /**
+     * Returns the SUB_STEPS table (data and headers) of the sub steps of a step.
+     *
+     * @param subSteps
+     * @param classification variance and false positive state of the step
+     * @param statusSubType
+     * @param gallery
+     * @return Map
+     */
+    private static Map<String, Object> createSubStepsTable(List<Map<String, Object>> subSteps, StepClassification classification,
+                                                           Map<String, Object> statusSubType, List<Map<String, Object>> gallery) {
+        String subStepStatus = classification.subStepStatus;
+        ClassificationDetails classificationDetails = classification.classificationDetails;
+        List<Map<String, Object>> subStepsVariableValue = new ArrayList<>();
+        Set<String> subStepsHeaders = new HashSet<>();
+        for (Map<String, Object> map1 : subSteps) {
+            Map<String, Object> subStepsTemp = new HashMap<>();
+            subStepsHeaders.addAll(map1.keySet());
+            for (Map.Entry<String, Object> entry : map1.entrySet()) {
+                String key2 = entry.getKey();
+                Object value = entry.getValue();
+                if (key2.equalsIgnoreCase("start_time") || key2.equalsIgnoreCase("end_time")) {
+                    Map<String, Object> timeReport = new HashMap<>();
+                    timeReport.put("subType", "datetime");
+                    subStepsTemp.put(ReportUtils.changeKeyValue(key2),
+                            ReportUtils.createCustomObject(value, "date", value,
+                                    "center", timeReport));
+                } else if (key2.equalsIgnoreCase("status")) {
+                    Object status = subStepStatus != null ? subStepStatus : value;
+                    subStepsTemp.put(ReportUtils.changeKeyValue(key2),
+                            ReportUtils.createCustomObject(status, "crud", status,
+                                    "center", statusSubType));
+                    subStepsTemp.put("EDIT_ICON", ReportUtils.createCustomObject("INACTIVE", "text", "INACTIVE", "left"));
+                    if (value != null && (value.toString().equalsIgnoreCase("ERR") || value.toString().equalsIgnoreCase("FAIL")) || (classificationDetails != null && classificationDetails.isFalsePositiveStatus())) {
+                        if (classification.varianceIsActive) {
+                            subStepsTemp.put("ISCLICKABLE", ReportUtils.createCustomObject(false, "text", false, "left"));
+                            subStepsTemp.put("ICON", ReportUtils.createCustomObject("VARIANCE_ACTIVE", "text", "VARIANCE_ACTIVE", "left"));
+                        } else if (classification.falsePositiveIsActive && classificationDetails != null) {
+                            subStepsTemp.put("ISCLICKABLE", ReportUtils.createCustomObject(false, "text", false, "left"));
+                            subStepsTemp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_ACTIVE", "text", "FALSE_POSITIVE_ACTIVE", "left"));
+                            if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
+                                subStepsTemp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
+                        } else if (classification.varianceIsThere) {
+                            subStepsTemp.put("ICON", ReportUtils.createCustomObject("VARIANCE_INACTIVE", "text", "VARIANCE_INACTIVE", "left"));
+                        } else if (classification.falsePositiveIsThere && classificationDetails != null) {
+                            subStepsTemp.put("ICON", ReportUtils.createCustomObject("FALSE_POSITIVE_INACTIVE", "text", "FALSE_POSITIVE_INACTIVE", "left"));
+                            if (classificationDetails.getReason() != null && !classificationDetails.getReason().isEmpty())
+                                subStepsTemp.put("REASON", ReportUtils.createCustomObject(classificationDetails.getReason(), "text", classificationDetails.getReason(), "left"));
                         }
-                    } else {
-                        temp.put(ReportUtils.changeKeyValue(key),
-                                ReportUtils.createCustomObject(stepMap.get(key), "text", stepMap.get(key),
-                                        "left"));
                     }
+                } else if (key2.equalsIgnoreCase("screenshot")) {
+                    subStepsTemp.put(ReportUtils.changeKeyValue(key2),
+                            ReportUtils.createCustomObject(value, "image",
+                                    value,
+                                    "center"));
+                    addToGallery(map1, value, gallery);
+                } else {
+                    subStepsTemp.put(ReportUtils.changeKeyValue(key2),
+                            ReportUtils.createCustomObject(value, "text", value,
+                                    "left"));
                 }
-                temp.put("PRODUCT TYPE", ReportUtils.createCustomObject(tempTest.getProduct_type(), "text", tempTest.getProduct_type(),
-                        "left"));
-                temp.remove("CLASSIFICATIONDETAILS");
-                stepsVariableValue.add(temp);
             }
-            Map<String, Object> testcase_info = new HashMap<>();
-            for (String status : statuesList) {
+            subStepsVariableValue.add(subStepsTemp);
+        }
+        Map<String, Object> subStepsData = new HashMap<>();
+        subStepsData.put("data", subStepsVariableValue);
+        subStepsData.put("headers", ReportUtils.headersDataStepRefactor(subStepsHeaders));
+        return subStepsData;
+    }
+
+    private static void addToGallery(Map<String, Object> step, Object screenshot, List<Map<String, Object>> gallery) {
+        if (screenshot == null || gallery == null) {
+            return;
+        }
+        Map<String, Object> image = new HashMap<>();
+        if (step.get("step name") != null) {
+            image.put(step.get("step name").toString(), screenshot);
+        } else {
+            image.put(String.valueOf(step.get("title")), screenshot);
+        }
+        gallery.add(image);
+    }
+
+    /**
+     * Returns step as a map, as it is when the steps were read without a type.
+     *
+     * @param step
+     * @return Map
+     */
+    private static Map<String, Object> toStepMap(Object step) {
+        if (step instanceof Map) {
+            return (Map<String, Object>) step;
+        }
+        return stepMapper.convertValue(step, Map.class);
+    }
+
+    /**
+     * Test exe of a step report with the variances of its suite and its steps, null when it has none.
+     */
+    private static final class StepReport {
 
-                testcase_info.put(status.toUpperCase(),
-                        Long.parseLong(testcase_info.getOrDefault(status.toUpperCase(), 0L).toString()) + 1);
+        private final TestExeDto testExe;
+        private final Map<Long, VarianceClassificationDto> varianceList;
+        private final StepClassification testLevel;
+        private final List<Object> steps;
 
+        private StepReport(TestExeDto testExe, Map<Long, VarianceClassificationDto> varianceList,
+                           StepClassification testLevel, List<Object> steps) {
+            this.testExe = testExe;
+            this.varianceList = varianceList;
+            this.testLevel = testLevel;
+            this.steps = steps;
+        }
+    }
+
+    /**
+     * Variance and false positive state of a test exe and of each of its steps, taken once per step
+     * and shared by the cells of the step and of its sub steps.
+     */
+    private static final class StepClassification {
+
+        private String status;
+        private String subStepStatus;
+        private boolean clickable;
+        private boolean varianceIsActive;
+        private boolean varianceIsThere;
+        private boolean falsePositiveIsActive;
+        private boolean falsePositiveIsThere;
+        private ClassificationDetails classificationDetails;
+
+        private static StepClassification ofTestExe(TestExeDto testExe, Map<Long, VarianceClassificationDto> varianceList) {
+            StepClassification classification = new StepClassification();
+            if (testExe.getVarianceId() != null) {
+                classification.varianceIsThere = true;
+            }
+            if (varianceList.get(testExe.getVarianceId()) != null) {
+                classification.varianceIsActive = true;
+                classification.status = "PASS";
             }
-            if (!testcase_info.isEmpty()) {
-                testcase_info.put("TOTAL", (long) statuesList.size());
+            if (testExe.getClassificationDetails() != null) {
+                classification.falsePositiveIsThere = true;
+                if (testExe.getClassificationDetails().isFalsePositiveStatus()) {
+                    classification.falsePositiveIsActive = true;
+                    classification.status = "PASS";
+                }
             }
-            if (tempTest.getMeta_data() != null && tempTest.getMeta_data().size() >= 3) {
-                tempTest.getMeta_data().set(2, testcase_info);
+            classification.subStepStatus = classification.status;
+            return classification;
+        }
+
+        /**
+         * Returns the state of stepMap, a step of the test exe of this.
+         *
+         * @param stepMap
+         * @param varianceList
+         * @return StepClassification
+         */
+        private StepClassification ofStep(Map<String, Object> stepMap, Map<Long, VarianceClassificationDto> varianceList) {
+            StepClassification classification = new StepClassification();
+            classification.status = status;
+            classification.subStepStatus = subStepStatus;
+            classification.varianceIsActive = varianceIsActive;
+            classification.varianceIsThere = varianceIsThere;
+            classification.falsePositiveIsActive = falsePositiveIsActive;
+            classification.falsePositiveIsThere = falsePositiveIsThere;
+            Object varianceId = stepMap.get("VARIANCEID");
+            if (varianceId != null) {
+                classification.varianceIsThere = true;
+                if (varianceList.get(toVarianceId(varianceId)) != null) {
+                    classification.clickable = true;
+                    classification.varianceIsActive = true;
+                    classification.status = "PASS";
+                    classification.subStepStatus = "PASS";
+                }
+            }
+            Object classificationDetails = stepMap.get("CLASSIFICATIONDETAILS");
+            if (classificationDetails != null) {
+                classification.falsePositiveIsThere = true;
+                classification.classificationDetails = classificationDetails instanceof ClassificationDetails
+                        ? (ClassificationDetails) classificationDetails
+                        : stepMapper.convertValue(classificationDetails, ClassificationDetails.class);
+                if (classification.classificationDetails.isFalsePositiveStatus()) {
+                    classification.clickable = true;
+                    classification.falsePositiveIsActive = true;
+                    classification.subStepStatus = "Pass";
+                }
             }
+            return classification;
         }
 
-        stepsListHeaders.remove("sub_step");
-        stepsListHeaders.remove("tc_run_id");
-        stepsListHeaders.remove("s_run_id");
-        stepsListHeaders.remove("CLASSIFICATIONDETAILS");
-        stepsListHeaders.remove("VARIANCEID");
-        stepData.put("headers", ReportUtils.headersDataStepRefactor(stepsListHeaders));
-        stepData.put("metaData", tempTest.getMeta_data());
-        stepData.put("gallery", gallery);
-        stepData.put("data", stepsVariableValue);
-        stepData.put("tc_run_id", tc_run_id);
+        /**
+         * Returns the status stepMap is counted with in the status totals, as createStepRow shows
+         * it, or null when it has none.
+         *
+         * @param stepMap
+         * @param varianceList
+         * @return String
+         */
+        private String statusOfStep(Map<String, Object> stepMap, Map<Long, VarianceClassificationDto> varianceList) {
+            if (!stepMap.containsKey("status")) {
+                return null;
+            }
+            Object varianceId = stepMap.get("VARIANCEID");
+            if (varianceId != null && varianceList.get(toVarianceId(varianceId)) != null) {
+                return "PASS";
+            }
+            return status != null ? status : (String) stepMap.get("status");
+        }
 
-        return new Response(stepData, DATA_FETCHED_SUCCESSFULLY, Success);
+        /**
+         * Steps read as JSON hold the VARIANCEID as an Integer when it fits, the variances are keyed by Long.
+         */
+        private static Long toVarianceId(Object varianceId) {
+            if (varianceId instanceof Number) {
+                return ((Number) varianceId).longValue();
+            }
+            try {
+                return Long.valueOf(varianceId.toString());
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
     }
 
     public Response populateResultWithoutTestExes(
@@ -466,6 +828,7 @@ public class ReportUtils {
         HashSet<String> statusesSet = new HashSet<>();
         Map<String, Object> statusSubType = new HashMap<>();
         statusSubType.put("subType", "falseVariance");
+        Map<String, String> stepVarianceStatuses = ReportUtils.checkStatusOfTestCasesByStepsIfVarianceIsThere(tempTest, varianceIds, varianceList);
         for (TestExeDto testExe : tempTest) {
             boolean clickable = false;
             boolean varianceIsActive = false;
@@ -481,10 +844,10 @@ public class ReportUtils {
                     clickable = true;
                     testExe.setStatus("PASS");
                 }
-                if (ReportUtils.checkoneListContainsElementOfAnotherList(varianceIds, testExe.getStepVarianceIds())) {
+                if (stepVarianceStatuses.containsKey(testExe.getTc_run_id())) {
                     varianceIsActive = true;
                     suiteVarianceIsActive = true;
-                    testExe.setStatus(ReportUtils.checkStatusOfTestCaseByStepsIfVarianceIsThere(testExe.getTc_run_id(), varianceList));
+                    testExe.setStatus(stepVarianceStatuses.get(testExe.getTc_run_id()));
                 }
             }
             if (testExe.getClassificationDetails() != null) {
@@ -570,7 +933,6 @@ public class ReportUtils {
 
         testcaseDetailsHeaders.remove("varianceId");
         testcaseDetails.put("headers", testcaseDetailsHeaders);
-        getSuite.setStatus(finalStatus);
         Map<String, Object> testCaseInfo = ReportUtils.testCaseInfoDoughnutChart(statues);
         if (testCaseInfo != null) {
             result.put("Testcase Info", testCaseInfo);
@@ -579,13 +941,13 @@ public class ReportUtils {
         if (CategoryBarChart != null) {
             result.put("Category_Bar_Chart", CategoryBarChart);
         }
-        result.put("Execution Info", ReportUtils.createExecutionInfoHeaders(getSuite));
+        result.put("Execution Info", ReportUtils.createExecutionInfoHeaders(getSuite, finalStatus));
         result.put("Infra Headers", ReportUtils.createInfraAndUserHeaders(tempTest, getSuite, "infraDetails"));
         result.put("User Details", ReportUtils.createInfraAndUserHeaders(tempTest, getSuite, "userDetails"));
         result.put("Build Details", ReportUtils.createBuildHeaders(getSuite));
         result.put("Execution details", ReportUtils.createExecutionDetailsHeaders(tempTest));
         result.put("Time Details", ReportUtils.createTimeReportHeaders(tempTest,getSuite));
-        result.put("status", getSuite.getStatus());
+        result.put("status", finalStatus);
 
         ProjectRoleDto projectRole = RestApiUtils.getProjectRoleByPidAndUsername(project.getPid(), user);
         if(projectRole!=null) {
@@ -808,8 +1170,19 @@ public class ReportUtils {
     }
 
     public static Object createExecutionInfoHeaders(SuiteExeDto getSuite) {
+        return createExecutionInfoHeaders(getSuite, getSuite.getStatus());
+    }
+
+    /**
+     * Execution info of getSuite with status in place of the status of the suite exe.
+     *
+     * @param getSuite
+     * @param status
+     * @return Object
+     */
+    public static Object createExecutionInfoHeaders(SuiteExeDto getSuite, String status) {
         Map<String, Object> data = new HashMap<String, Object>();
-        data.put("Status", getSuite.getStatus());
+        data.put("Status", status);
         data.put("Project Name", StringUtils.capitalize(getSuite.getProject_name()));
         data.put("Env", StringUtils.capitalize(getSuite.getEnv()));
         data.put("Report Name", StringUtils.capitalize(getSuite.getReport_name()));
@@ -839,6 +1212,7 @@ public class ReportUtils {
         boolean suiteVarianceIsThere = false;
         boolean suiteFalsePositiveIsActive = false;
         boolean suiteFalsePositiveIsThere = false;
+        Map<String, String> stepVarianceStatuses = ReportUtils.checkStatusOfTestCasesByStepsIfVarianceIsThere(tempTest, varianceIds, varianceList);
         for (TestExeDto testExe : tempTest) {
             boolean clickable = false;
             boolean varianceIsActive = false;
@@ -854,10 +1228,10 @@ public class ReportUtils {
                     clickable = true;
                     testExe.setStatus("PASS");
                 }
-                if (ReportUtils.checkoneListContainsElementOfAnotherList(varianceIds, testExe.getStepVarianceIds())) {
+                if (stepVarianceStatuses.containsKey(testExe.getTc_run_id())) {
                     varianceIsActive = true;
                     suiteVarianceIsActive = true;
-                    testExe.setStatus(ReportUtils.checkStatusOfTestCaseByStepsIfVarianceIsThere(testExe.getTc_run_id(), varianceList));
+                    testExe.setStatus(stepVarianceStatuses.get(testExe.getTc_run_id()));
                 }
             }
             if (testExe.getClassificationDetails() != null) {
@@ -1034,6 +1408,17 @@ public class ReportUtils {
         return username;
     }
 
+    /**
+     * @return Expiry (epoch millis) of the token from the httpServletRequest, 0 if it has none
+     */
+    public static long getTokenExpiryFromServletRequest() {
+        Object details = SecurityContextHolder.getContext().getAuthentication().getDetails();
+        if (details instanceof Claims && ((Claims) details).getExpiration() != null) {
+            return ((Claims) details).getExpiration().getTime();
+        }
+        return 0L;
+    }
+
     /**
      * Return user from servlet request.
      *
@@ -1041,7 +1426,8 @@ public class ReportUtils {
      */
     public static UserDto getUserDtoFromServetRequest() {
         String username = getUsernameFromServletRequest();
-        UserDto userDto = getUsernameAndIsDeleted(username, false);
+        UserDto userDto = RequestMemoUtils.memoize(RequestMemoUtils.USER_LOOKUP, username,
+                () -> userCache.get(username, getTokenExpiryFromServletRequest(), name -> getUsernameAndIsDeleted(name, false)));
         if (userDto == null) {
             log.error("Error occurred while trying to fetch user for username: {}", username);
             throw new CustomDataException(USER_DETAILS_NOT_FOUND, null, Failure, HttpStatus.NOT_ACCEPTABLE);
@@ -1082,17 +1468,10 @@ public class ReportUtils {
         uriVariables.put("username", username);
         uriVariables.put("deleted", deleted);
         try {
-            ResponseEntity response = restTemplate.exchange(userManagerUrl + "/userManagement/v1/username/deleted?username={username}&deleted={deleted}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            gson = new Gson();
-            Type type = new TypeToken<UserDto>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<UserDto>> response = userManagerRestTemplate.exchange(userManagerUrl + "/userManagement/v1/username/deleted?username={username}&deleted={deleted}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<UserDto>>() {
+                    }, uriVariables);
+            return RestApiUtils.getData(response);
         } catch (RestClientException ex) {
             log.info("User details not found for username: {}, ", username);
             return null;
@@ -1158,31 +1537,27 @@ public class ReportUtils {
     }
 
     public static ProjectRoleDto getActiveProjectRole(Long pid, String username) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        String url = projectManagerUrl + "/v2/project/role/entity?pid={pid}&userName={username}&status=ACTIVE";
-        uriVariables.put("username", username);
-        uriVariables.put("pid", pid);
-        ProjectRoleDto projectRole;
-        try {
-            ResponseEntity response = restTemplate.exchange(url, HttpMethod.GET, httpEntity, Object.class,
-                    uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new com.google.gson.reflect.TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new com.google.gson.reflect.TypeToken<ProjectRoleDto>() {
-            }.getType();
-            projectRole = gson.fromJson(gson.toJson(data), type);
-        } catch (HttpClientErrorException.NotFound ex) {
-            log.warn("Error occurred due to ProjectRole details not found for username: {}", username);
-            return null;
-        }
-        log.info("Project Role Details ==> {}", projectRole);
-        return projectRole;
+        return RequestMemoUtils.memoize(RequestMemoUtils.PROJECT_ROLE_LOOKUP, pid + ":" + username + ":" + ACTIVE_STATUS, () -> authorizationCache.getProjectRole(pid, username, ACTIVE_STATUS, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            HttpEntity httpEntity = new HttpEntity(null, headers);
+            Map<String, Object> uriVariables = new HashMap<>();
+            String url = projectManagerUrl + "/v2/project/role/entity?pid={pid}&userName={username}&status=ACTIVE";
+            uriVariables.put("username", username);
+            uriVariables.put("pid", pid);
+            ProjectRoleDto projectRole;
+            try {
+                ResponseEntity<ApiResponse<ProjectRoleDto>> response = projectManagerRestTemplate.exchange(url, HttpMethod.GET, httpEntity,
+                        new ParameterizedTypeReference<ApiResponse<ProjectRoleDto>>() {
+                        }, uriVariables);
+                projectRole = RestApiUtils.getData(response);
+            } catch (HttpClientErrorException.NotFound ex) {
+                log.warn("Error occurred due to ProjectRole details not found for username: {}", username);
+                return null;
+            }
+            log.info("Project Role Details ==> {}", projectRole);
+            return projectRole;
+        }));
     }
 
 //    public static Map<String, Object> getAllTestExesForTcRunId(RuleApi payload, Integer pageNo, Integer sort,
@@ -1352,104 +1727,19 @@ public class ReportUtils {
 //    }
 
     public static double brokenIndexForTestExe(List<TestExeCommonDto> testExes) {
-        if (testExes.isEmpty()) {
-            return 0;
-        }
-        int totalTestExes = testExes.size();
-        int failCount = 0;
-        int transitions = 0;
-
-        TestExeCommonDto prevTestExe = null;
-        for (TestExeCommonDto currentTestExe : testExes) {
-            if (currentTestExe.getStatus().equalsIgnoreCase("FAIL")) {
-                failCount++;
-            }
-            if (prevTestExe != null && isTransition(prevTestExe.getStatus(), currentTestExe.getStatus())) {
-                transitions++;
-            }
-            prevTestExe = currentTestExe;
-        }
-        if (failCount == totalTestExes) {
-            return 1.0;
-        }
-        if (transitions == 0) {
-            return 0.0;
-        }
-        return Math.round((double) transitions / (totalTestExes/(double)2) * 100.0) / 100.0;
+        return RunHistoryMetrics.ofTestExes(testExes).getBrokenIndex();
     }
 
     public static double brokenIndexForSuiteExe(List<SuiteExeDto> suites) {
-        if (suites.isEmpty()) {
-            return 0;
-        }
-        int totalSuites = suites.size();
-        int failCount = 0;
-        int transitions = 0;
-
-        SuiteExeDto prevSuite = null;
-        for (SuiteExeDto currentSuite : suites) {
-            if (currentSuite.getStatus().equalsIgnoreCase("FAIL")) {
-                failCount++;
-            }
-            if (prevSuite != null && isTransition(prevSuite.getStatus(), currentSuite.getStatus())) {
-                transitions++;
-            }
-            prevSuite = currentSuite;
-        }
-        if (failCount == totalSuites) {
-            return 1.0;
-        }
-        if (transitions == 0) {
-            return 0.0;
-        }
-
-        return Math.round((double) transitions / (totalSuites/(double)2) * 100.0) / 100.0;
-    }
-
-    private static boolean isTransition(String status1, String status2) {
-        // Define your transition logic here
-        return (isNonFailure(status1) && isFailure(status2));
-    }
-
-    private static boolean isNonFailure(String status) {
-        return status.equalsIgnoreCase("PASS") || status.equalsIgnoreCase("INFO")
-                || status.equalsIgnoreCase("EXE") || status.equalsIgnoreCase("WARN");
-    }
-
-    private static boolean isFailure(String status) {
-        return status.equalsIgnoreCase("FAIL") || status.equalsIgnoreCase("ERR");
+        return RunHistoryMetrics.ofSuiteExes(suites).getBrokenIndex();
     }
 
     public static String averageFixTimeForTestExeCommon(List<TestExeCommonDto> testExes) {
+        return averageFixTimeForTestExeCommon(RunHistoryMetrics.ofTestExes(testExes));
+    }
 
-        TestExeCommonDto curr = null;
-        TestExeCommonDto prev = null;
-        List<Long> averageTimes = new ArrayList<>();
-
-        for (TestExeCommonDto testExe : testExes) {
-
-            if (curr == null && prev == null) {
-
-                curr = testExe;
-            } else {
-
-                prev = curr;
-                curr = testExe;
-                if ((curr.getStatus().equalsIgnoreCase("PASS") || curr.getStatus().equalsIgnoreCase("INFO")
-                        || curr.getStatus().equalsIgnoreCase("EXE") || curr.getStatus().equalsIgnoreCase("WARN"))
-                        && (prev.getStatus().equalsIgnoreCase("FAIL") || prev.getStatus().equalsIgnoreCase("ERR"))) {
-                    averageTimes.add(curr.getStart_time() - prev.getStart_time());
-                }
-
-            }
-        }
-        double sum = 0;
-        for (double current : averageTimes) {
-            sum = sum + current;
-
-        }
-        double average = sum / averageTimes.size();
-        average = average / 1000;
+    public static String averageFixTimeForTestExeCommon(RunHistoryMetrics metrics) {
+        double average = metrics.getAverageFixTime();
 
         String res = "";
         DecimalFormat df = new DecimalFormat("#");
@@ -1479,69 +1769,18 @@ public class ReportUtils {
             res = ans;
         }
 
-        if (res.equals("") || sum == 0) {
+        if (res.equals("") || metrics.getFixTimeSum() == 0) {
             res = "Never Broken";
         }
         return res;
     }
 
     public static long averageFixTimeForSuiteExe(List<SuiteExeDto> suites) {
-
-        SuiteExeDto curr = null;
-        SuiteExeDto prev = null;
-        List<Long> averageTimes = new ArrayList<>();
-
-        for (SuiteExeDto suite : suites) {
-
-            if (curr == null) {
-
-                curr = suite;
-            } else {
-
-                prev = curr;
-                curr = suite;
-                if ((curr.getStatus().equalsIgnoreCase("PASS") || curr.getStatus().equalsIgnoreCase("INFO")
-                        || curr.getStatus().equalsIgnoreCase("EXE") || curr.getStatus().equalsIgnoreCase("WARN"))
-                        && (prev.getStatus().equalsIgnoreCase("FAIL") || prev.getStatus().equalsIgnoreCase("ERR"))) {
-                    averageTimes.add(curr.getS_start_time() - prev.getS_start_time());
-                }
-
-            }
-        }
-        double sum = 0;
-        for (double current : averageTimes) {
-            sum = sum + current;
-
-        }
-        double average = sum / averageTimes.size();
-        average = average / 1000;
-        return (long) average;
-
+        return (long) RunHistoryMetrics.ofSuiteExes(suites).getAverageFixTime();
     }
 
     public static long getDownTimeForSuiteExe(List<SuiteExeDto> suites) {
-        if (suites.get(0).getStatus().equalsIgnoreCase("PASS")) {
-            return 0;
-        } else {
-            SuiteExeDto prev = null;
-            long firstFailTime = 0;
-            for (SuiteExeDto suite : suites) {
-                if (suite.getStatus().equalsIgnoreCase("PASS")) {
-                    break;
-                }
-                prev = suite;
-            }
-            if (prev != null) {
-                firstFailTime = prev.getS_start_time();
-            }
-
-            Date d = new Date();
-            long downTime = (d.getTime() - firstFailTime) / 1000;
-            if (downTime < 0) {
-                return 0;
-            }
-            return downTime;
-        }
+        return RunHistoryMetrics.ofSuiteExes(suites).getDownTime();
     }
 
     public static int stabilityIndex(double brokenIndex) {
@@ -1549,24 +1788,20 @@ public class ReportUtils {
     }
 
 
-    public static String lastRunStatusForTestExeCommon(List<TestExeCommonDto> testExes) {
-        return testExes.get(0).getStatus();
-    }
-
-    public static String getFailingSinceForTestExeCommon(List<TestExeCommonDto> testExes, double brokenIndex) {
+    /**
+     * Returns "Last n Runs" for the n FAIL runs at the end of the history of metrics.
+     *
+     * @param metrics
+     * @param brokenIndex
+     * @return String
+     */
+    public static String getFailingSince(RunHistoryMetrics metrics, double brokenIndex) {
         if (brokenIndex == 0) {
             return NO_ISSUES;
         } else if (brokenIndex == 1) {
             return NEVER_FIXED;
         } else {
-            int count = 0;
-            for (TestExeCommonDto testExe : testExes) {
-                if (!testExe.getStatus().equalsIgnoreCase("FAIL")) {
-                    break;
-                }
-                count++;
-
-            }
+            long count = metrics.getTrailingFailCount();
             if (count == 0) {
                 return NO_ISSUES;
             }
@@ -1574,37 +1809,11 @@ public class ReportUtils {
         }
     }
 
-    public static Long getLastPassForTestExeCommon(List<TestExeCommonDto> testExes) {
-        for (TestExeCommonDto testExe : testExes) {
-            if (testExe.getStatus().equalsIgnoreCase("PASS")) {
-                return testExe.getStart_time();
-            }
-
-        }
-        return 0L;
-    }
-
-    public static String getDownTimeForTestExeCommon(List<TestExeCommonDto> testExes) {
-        if (testExes.get(0).getStatus().equalsIgnoreCase("PASS")) {
+    public static String getDownTimeForTestExeCommon(RunHistoryMetrics metrics) {
+        long downTime = metrics.getDownTime();
+        if (downTime == 0) {
             return NO_ISSUES;
         } else {
-            TestExeCommonDto prev = null;
-            long firstFailTime = 0;
-            for (TestExeCommonDto testExe : testExes) {
-                if (testExe.getStatus().equalsIgnoreCase("PASS")) {
-                    break;
-                }
-                prev = testExe;
-            }
-            if (prev != null) {
-                firstFailTime = prev.getEnd_time();
-            }
-
-            Date d = new Date();
-            long downTime = (d.getTime() - firstFailTime) / 1000;
-            if (downTime < 0) {
-                return NO_ISSUES;
-            }
             String res = "";
             DecimalFormat df = new DecimalFormat("#");
             if (downTime < 60) {
@@ -1658,7 +1867,7 @@ public class ReportUtils {
         testExeDiagnose.setMiscData((List<Map<String, Object>>) testExe.get("miscData"));
         testExeDiagnose.setUserDefinedData((Map<String, Object>) testExe.get("userDefinedData"));
         testExeDiagnose.setS_run_id((String) testExe.get("s_run_id"));
-        testExeDiagnose.setP_id(((Double)suiteExe.get("p_id")).longValue());
+        testExeDiagnose.setP_id(((Number) suiteExe.get("p_id")).longValue());
         return testExeDiagnose;
     }
 
@@ -1696,6 +1905,36 @@ public class ReportUtils {
 
     public static double getScore(double brokenIndex, long downTime, long averageFixTime, String env,
                                   List<SuiteExeDto> suiteExeList) {
+        double count = 0;
+        List<String> sRunIdsList = new ArrayList<>();
+        for (SuiteExeDto suiteExe : suiteExeList) {
+            sRunIdsList.add(suiteExe.getS_run_id());
+            if (suiteExe.getStatus().equalsIgnoreCase("FAIL") || suiteExe.getStatus().equalsIgnoreCase("ERR")) {
+                count++;
+            }
+        }
+        Map<String, Double> testCaseCountMap = RestApiUtils.getTestCaseCount(sRunIdsList, List.of("ERR", "FAIL"));
+        double totalTestCaseCount = testCaseCountMap.get("totalTestCaseCount");
+        double failTestCaseCount = testCaseCountMap.get("testCaseCountWithStatus");
+        return getScore(brokenIndex, downTime, averageFixTime, env, suiteExeList.size(), count, totalTestCaseCount,
+                failTestCaseCount);
+    }
+
+    /**
+     * Returns the app stability score from the counts of a suite exe history.
+     *
+     * @param brokenIndex
+     * @param downTime
+     * @param averageFixTime
+     * @param env
+     * @param suiteCount
+     * @param failedSuiteCount  FAIL and ERR suite exes
+     * @param totalTestCaseCount
+     * @param failTestCaseCount FAIL and ERR test exes
+     * @return double
+     */
+    public static double getScore(double brokenIndex, long downTime, long averageFixTime, String env, long suiteCount,
+                                  double failedSuiteCount, double totalTestCaseCount, double failTestCaseCount) {
         double averageFixTimeScore = 25;
         double downTimeScore = 15;
         double averageFixTimeCount = 0;
@@ -1720,17 +1959,6 @@ public class ReportUtils {
         if (downTimeScore < 0) {
             downTimeScore = 0;
         }
-        double count = 0;
-        List<String> sRunIdsList = new ArrayList<>();
-        for (SuiteExeDto suiteExe : suiteExeList) {
-            sRunIdsList.add(suiteExe.getS_run_id());
-            if (suiteExe.getStatus().equalsIgnoreCase("FAIL") || suiteExe.getStatus().equalsIgnoreCase("ERR")) {
-                count++;
-            }
-        }
-        Map<String, Double> testCaseCountMap = RestApiUtils.getTestCaseCount(sRunIdsList, List.of("ERR", "FAIL"));
-        double totalTestCaseCount = testCaseCountMap.get("totalTestCaseCount");
-        double failTestCaseCount = testCaseCountMap.get("testCaseCountWithStatus");;
         if (totalTestCaseCount > 0) {
             testCaseScore = testCaseScore - ((failTestCaseCount / totalTestCaseCount) * 15);
         } else {
@@ -1740,8 +1968,8 @@ public class ReportUtils {
             testCaseScore = 0;
         }
 
-        if (!suiteExeList.isEmpty()) {
-            suiteScore = suiteScore - ((count / suiteExeList.size()) * 10);
+        if (suiteCount > 0) {
+            suiteScore = suiteScore - ((failedSuiteCount / suiteCount) * 10);
         } else {
             suiteScore = 0;
         }
@@ -1813,31 +2041,25 @@ public class ReportUtils {
         return mongoOperations.findOne(query, SuiteRun.class);
     }
 
-    public static List<TestExeCommonDto> getSortedListForTestExeCommon(List<TestExeCommonDto> list) {
-        List<TestExeCommonDto> testExes = new ArrayList<>();
-        testExes.addAll(list);
-        Collections.sort(testExes, new TimeComparatorTestExeCommon());
-        return testExes;
-    }
-
-    public static List<SuiteExeDto> getSortedListForSuiteExe(List<SuiteExeDto> list) {
-        List<SuiteExeDto> suites = new ArrayList<>();
-        suites.addAll(list);
-        Collections.sort(suites, new TimeComparator());
-        return suites;
-    }
-
-    static class TimeComparator implements Comparator<SuiteExeDto> {
-
-        @Override
-        public int compare(SuiteExeDto data, SuiteExeDto data2) {
-            if (data.getS_start_time() == data2.getS_start_time())
-                return 0;
-            else if (data.getS_start_time() < data2.getS_start_time())
-                return 1;
-            else
-                return -1;
+    /**
+     * Groups test exes by s_run_id in a single pass, counting statuses (PASS, FAIL, EXE, ERR, INFO
+     * and WARN) and collecting the users, run types and run modes of each suite run.
+     *
+     * @param testExes
+     * @return map of s_run_id to its stats
+     */
+    public static Map<String, SuiteRunTestExeStats> groupTestExesByS_run_id(List<TestExeSummaryDto> testExes) {
+        Map<String, SuiteRunTestExeStats> statsMap = new HashMap<>();
+        for (TestExeSummaryDto testExe : testExes) {
+            SuiteRunTestExeStats stats = statsMap.computeIfAbsent(testExe.getS_run_id(), sRunId -> new SuiteRunTestExeStats());
+            stats.getStatusHistogram().add(testExe.getStatus());
+            if (testExe.getInvoke_user() != null) stats.getInvokeUsers().add(testExe.getInvoke_user());
+            if (testExe.getBase_user() != null) stats.getBaseUsers().add(testExe.getBase_user());
+            if (testExe.getToken_user() != null) stats.getTokenUsers().addAll(testExe.getToken_user());
+            stats.getRunTypes().add(testExe.getRun_type());
+            stats.getRunModes().add(testExe.getRun_mode());
         }
+        return statsMap;
     }
 
     private List<Map<String, Object>> getLinkedSteps(List<Map<String, Object>> data, Long isolatedVersionId, int id,
@@ -1896,19 +2118,78 @@ public class ReportUtils {
         return data;
     }
 
-    public static String checkStatusOfTestCaseByStepsIfVarianceIsThere(String tc_run_id,
-                                                                       Map<Long, VarianceClassificationDto> data) {
+    /**
+     * Returns the status of every test exe of testExes with a step variance among varianceIds, by
+     * tc_run_id, from the statuses of its steps with the steps of an active variance as PASS. The
+     * steps of all of them are read in one query per STEP_VARIANCE_BATCH_SIZE test exes, with only
+     * their status and VARIANCEID.
+     *
+     * @param testExes
+     * @param varianceIds ids of the active variances
+     * @param data        active variances by id
+     * @return Map
+     */
+    public static Map<String, String> checkStatusOfTestCasesByStepsIfVarianceIsThere(List<TestExeDto> testExes, List<Long> varianceIds,
+                                                                                   Map<Long, VarianceClassificationDto> data) {
+        List<String> tcRunIds = new ArrayList<>();
+        for (TestExeDto testExe : testExes) {
+            if (testExe.getStepVarianceIds() != null && checkoneListContainsElementOfAnotherList(varianceIds, testExe.getStepVarianceIds())) {
+                tcRunIds.add(testExe.getTc_run_id());
+            }
+        }
+        Map<String, String> statuses = new HashMap<>();
+        for (int from = 0; from < tcRunIds.size(); from += STEP_VARIANCE_BATCH_SIZE) {
+            Query query = new Query(Criteria.where("tc_run_id")
+                    .in(tcRunIds.subList(from, Math.min(tcRunIds.size(), from + STEP_VARIANCE_BATCH_SIZE))));
+            query.fields().include("tc_run_id").include("steps.status").include("steps.VARIANCEID");
+            for (StepsDto steps : mongoOperations.find(query, StepsDto.class)) {
+                statuses.put(steps.getTc_run_id(), getStatusOfStepsIfVarianceIsThere(steps.getSteps(), data));
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Returns the classifications of the test exes of s_run_id that have one (false positive
+     * details, variance and step variances), read with only those fields, as a version of them.
+     *
+     * @param s_run_id
+     * @return List
+     */
+    public static List<TestExeDto> getTestExeClassifications(String s_run_id) {
+        Query query = new Query(Criteria.where("s_run_id").is(s_run_id).orOperator(
+                Criteria.where("classificationDetails").ne(null),
+                Criteria.where("varianceId").ne(null),
+                Criteria.where("stepVarianceIds.0").exists(true)));
+        query.fields().include("tc_run_id").include("classificationDetails").include("varianceId").include("stepVarianceIds");
+        query.with(Sort.by("tc_run_id"));
+        return mongoOperations.find(query, TestExeDto.class);
+    }
+
+    /**
+     * Returns the classifications of the steps of tc_run_id (CLASSIFICATIONDETAILS and VARIANCEID),
+     * read with only those fields, as a version of them.
+     *
+     * @param tc_run_id
+     * @return List
+     */
+    public static List<Object> getStepClassifications(String tc_run_id) {
         Query query = new Query(Criteria.where("tc_run_id").is(tc_run_id));
+        query.fields().include("steps.CLASSIFICATIONDETAILS").include("steps.VARIANCEID");
         StepsDto steps = mongoOperations.findOne(query, StepsDto.class);
-        if (steps.getSteps().size() == 0) {
+        return steps == null || steps.getSteps() == null ? Collections.emptyList() : steps.getSteps();
+    }
+
+    private static String getStatusOfStepsIfVarianceIsThere(List<Object> steps, Map<Long, VarianceClassificationDto> data) {
+        if (steps == null || steps.size() == 0) {
             return "PASS";
         }
         Set<String> statues = new HashSet<>();
-        for (Object step : steps.getSteps()) {
+        for (Object step : steps) {
             String status = null;
             Map<String, Object> finalstep = (Map<String, Object>) step;
             if (finalstep.getOrDefault("VARIANCEID", null) != null) {
-                Long varianceId = (Long) finalstep.getOrDefault("VARIANCEID", null);
+                Long varianceId = StepClassification.toVarianceId(finalstep.get("VARIANCEID"));
                 if (data.getOrDefault(varianceId, null) != null) {
                     status = "PASS";
                 } else {
@@ -1965,20 +2246,6 @@ public class ReportUtils {
         return key.replace('_', ' ').toUpperCase();
     }
 
-    static class TimeComparatorTestExeCommon implements Comparator<TestExeCommonDto> {
-
-        @Override
-        public int compare(TestExeCommonDto data, TestExeCommonDto data2) {
-            if (data.getStart_time() == data2.getStart_time())
-                return 0;
-            else if (data.getStart_time() < data2.getStart_time())
-                return 1;
-            else
-                return -1;
-        }
-
-    }
-
     public static Double getTimeRemainingNew(SuiteExeDto suite, List<List<DependencyTree>> ans) {
 
         Double remaining_time = 0.0;
@@ -2230,184 +2497,99 @@ public class ReportUtils {
         return finalList;
     }
 
-    public static Map<String, List<SuiteExeDto>> getSuiteNames(String reportName, List<Long> pid, List<String> projects, long startTime, long endTime, List<String> envs) {
+    /**
+     * Groups suiteExes by project_name:report_name:env.
+     *
+     * @param suiteExes
+     * @return Map<String, List<SuiteExeDto>>
+     */
+    public static Map<String, List<SuiteExeDto>> groupSuiteExes(List<SuiteExeDto> suiteExes) {
         Map<String, List<SuiteExeDto>> map = new HashMap<>();
-        List<SuiteExeDto> suiteExeList = RestApiUtils.getSuiteExesForReportName(reportName, pid, projects, startTime, endTime, envs);
-        for (SuiteExeDto suiteExe : suiteExeList) {
-            StringBuilder key = new StringBuilder();
-            key.append(suiteExe.getProject_name()).append(":").append(suiteExe.getReport_name()).append(":").append(suiteExe.getEnv());
-            List<SuiteExeDto> data = map.getOrDefault(key.toString(), null);
-            if (data == null) {
-                List<SuiteExeDto> newList = new ArrayList<>();
-                newList.add(suiteExe);
-                map.put(key.toString(), newList);
-            } else {
-                data.add(suiteExe);
-                map.put(key.toString(), data);
-            }
+        for (SuiteExeDto suiteExe : suiteExes) {
+            String key = suiteExe.getProject_name() + ":" + suiteExe.getReport_name() + ":" + suiteExe.getEnv();
+            map.computeIfAbsent(key, k -> new ArrayList<>()).add(suiteExe);
         }
         return map;
     }
 
-    public static Map<String, Object> last5SuiteRuns(List<SuiteExeDto> getAllSuites) {
-        List<SuiteExeDto> suiteExes = new ArrayList<>();
-        suiteExes.addAll(getAllSuites);
-        // Collections.sort(suiteExes,new TimeComparator());
-        suiteExes = suiteExes.subList(0, suiteExes.size() >= 5 ? 5 : suiteExes.size());
+    /**
+     * Returns the stacked bar chart of the last 5 suite runs.
+     *
+     * @param lastRuns     latest runs first
+     * @param statusCounts test exe counts of the suite runs by s_run_id, see RestApiUtils.getTestExeStatusCounts
+     * @return map
+     */
+    public static Map<String, Object> last5SuiteRuns(List<SuiteSummaryBucket.SuiteRunRef> lastRuns, Map<String, List<TestExeStatusCountDto>> statusCounts) {
+        List<SuiteSummaryBucket.SuiteRunRef> suiteExes = lastRuns.subList(0, Math.min(lastRuns.size(), 5));
         if (suiteExes.size() > 0) {
-            List<Long> passCount = new ArrayList<>();
-            List<Long> failCount = new ArrayList<>();
-            List<Long> warnCount = new ArrayList<>();
-            List<Long> infoCount = new ArrayList<>();
-            List<Long> errCount = new ArrayList<>();
-            List<Long> exeCount = new ArrayList<>();
+            List<StatusHistogram> bars = new ArrayList<>();
             List<Long> labels = new ArrayList<>();
             List<String> ids = new ArrayList<>();
             long suiteFailCount = 0L;
-            for (SuiteExeDto suiteExe : suiteExes) {
+            for (SuiteSummaryBucket.SuiteRunRef suiteExe : suiteExes) {
                 if (suiteExe.getStatus().toUpperCase().equals("FAIL")) {
                     suiteFailCount++;
                 }
-//                Query query1 = new Query(Criteria.where("s_run_id").is(suiteExe.getS_run_id()));
-                List<TestExeDto> testExeList = RestApiUtils.getTestExeList(suiteExe.getS_run_id());
-                Map<String, Long> statusMap = new HashMap<>();
-                for (StatusColor statusColor : StatusColor.values()) {
-                    statusMap.put(statusColor.toString(), 0L);
-                }
-                long totalCount = 0L;
-                for (TestExeDto testExe : testExeList) {
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.PASS.toString())) {
-                        long value = statusMap.get(StatusColor.PASS.toString()) + 1;
-                        statusMap.put(StatusColor.PASS.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.FAIL.toString())) {
-                        long value = statusMap.get(StatusColor.FAIL.toString()) + 1;
-                        statusMap.put(StatusColor.FAIL.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.EXE.toString())) {
-                        long value = statusMap.get(StatusColor.EXE.toString()) + 1;
-                        statusMap.put(StatusColor.EXE.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.ERR.toString())) {
-                        long value = statusMap.get(StatusColor.ERR.toString()) + 1;
-                        statusMap.put(StatusColor.ERR.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.INFO.toString())) {
-                        long value = statusMap.get(StatusColor.INFO.toString()) + 1;
-                        statusMap.put(StatusColor.INFO.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.WARN.toString())) {
-                        long value = statusMap.get(StatusColor.WARN.toString()) + 1;
-                        statusMap.put(StatusColor.WARN.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-
-                }
-
-                for (StatusColor statusColor : StatusColor.values()) {
-                    switch (statusColor.toString()) {
-                        case "PASS":
-                            passCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "FAIL":
-                            failCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "WARN":
-                            warnCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "INFO":
-                            infoCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "ERR":
-                            errCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "EXE":
-                            exeCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                    }
-
+                StatusHistogram statusHistogram = new StatusHistogram();
+                for (TestExeStatusCountDto statusCount : statusCounts.getOrDefault(suiteExe.getS_run_id(), Collections.emptyList())) {
+                    statusHistogram.add(statusCount.getStatus(), statusCount.getCount());
                 }
+                bars.add(statusHistogram);
                 labels.add(suiteExe.getS_start_time());
                 ids.add(suiteExe.getS_run_id());
             }
 
             Map<String, Object> suiteBarGraph = new HashMap<>();
             suiteBarGraph.put("labels", labels);
-            List<Map<String, Object>> datasets = new ArrayList<>();
-
-            for (StatusColor statusColor : StatusColor.values()) {
-                Map<String, Object> datasetmap = new HashMap<>();
-                datasetmap.put("label", statusColor.toString());
-                switch (statusColor.toString().toUpperCase()) {
-                    case "PASS":
-                        datasetmap.put("data", passCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "FAIL":
-                        datasetmap.put("data", failCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "WARN":
-                        datasetmap.put("data", warnCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "INFO":
-                        datasetmap.put("data", infoCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "ERR":
-                        datasetmap.put("data", errCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "EXE":
-                        datasetmap.put("data", exeCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                }
-                datasets.add(datasetmap);
-            }
             suiteBarGraph.put("ids", ids);
             suiteBarGraph.put("click", true);
-            suiteBarGraph.put("datasets", datasets);
+            suiteBarGraph.put("datasets", StatusHistogram.toStackedBarDatasets(bars));
             suiteBarGraph.put("size", suiteFailCount);
             return suiteBarGraph;
         } else {
             return null;
         }
     }
-    public static Map<String, Long> culprit(List<SuiteExeDto> getAllSuites) {
+
+    /**
+     * Returns the testcases failing in more than half of the suite runs, with their fail percentage.
+     *
+     * @param getAllSuites
+     * @param statusCounts test exe counts of the suite runs by s_run_id, see RestApiUtils.getTestExeStatusCounts
+     * @return map
+     */
+    public static Map<String, Long> culprit(List<SuiteExeDto> getAllSuites, Map<String, List<TestExeStatusCountDto>> statusCounts) {
         if (getAllSuites.isEmpty()) {
             return null;
         }
-        List<String> sRunIds = getAllSuites.stream().map(SuiteExeDto::getS_run_id).collect(Collectors.toList());
-        List<TestExeDto> testExeList = RestApiUtils.getTestExeListForS_run_ids(sRunIds);
         Map<String, Long> totalCountMap = new HashMap<>();
         Map<String, Long> failCountMap = new HashMap<>();
-        Map<String, Long> finalMap = new HashMap<>();
-        String testCaseName = null;
-        long percentage = 0L;
-        long averagePercentage = 0L;
-
-        for (TestExeDto testExe : testExeList) {
-            if (testExe.getStatus().equalsIgnoreCase("FAIL") || testExe.getStatus().equalsIgnoreCase("EXE")) {
-                failCountMap.put(testExe.getName(), failCountMap.getOrDefault(testExe.getName(), 0L) + 1);
+        for (SuiteExeDto suiteExe : getAllSuites) {
+            for (TestExeStatusCountDto statusCount : statusCounts.getOrDefault(suiteExe.getS_run_id(), Collections.emptyList())) {
+                if ("FAIL".equals(statusCount.getStatus()) || "EXE".equals(statusCount.getStatus())) {
+                    failCountMap.put(statusCount.getName(), failCountMap.getOrDefault(statusCount.getName(), 0L) + statusCount.getCount());
+                }
+                totalCountMap.put(statusCount.getName(), totalCountMap.getOrDefault(statusCount.getName(), 0L) + statusCount.getCount());
             }
-            totalCountMap.put(testExe.getName(), totalCountMap.getOrDefault(testExe.getName(), 0L) + 1);
         }
+        return culprit(totalCountMap, failCountMap);
+    }
+
+    /**
+     * Returns the testcases failing in more than half of their runs, with their fail percentage.
+     *
+     * @param totalCountMap test exe count by testcase name
+     * @param failCountMap  FAIL and EXE test exe count by testcase name
+     * @return map
+     */
+    public static Map<String, Long> culprit(Map<String, Long> totalCountMap, Map<String, Long> failCountMap) {
         if (failCountMap.size() == 0) {
             return null;
         }
+        Map<String, Long> finalMap = new HashMap<>();
+        String testCaseName = null;
+        long percentage = 0L;
+        long averagePercentage = 0L;
 
         for (String name : totalCountMap.keySet()) {
             long failCount = failCountMap.getOrDefault(name, 0L);
@@ -2472,12 +2654,28 @@ public class ReportUtils {
         double totalTestCaseCount = testCaseCountMap.get("totalTestCaseCount");
         double errTestCaseCount = testCaseCountMap.get("testCaseCountWithStatus");
         double falsePositiveTestCount = testCaseCountMap.get("falsePositiveTestCaseCount");
+        return getQAScore(getAllSuites.size(), suiteErrCount, falsePositive, totalTestCaseCount, errTestCaseCount,
+                falsePositiveTestCount);
+    }
 
-        double finalSuiteScore = (((999 * 0.5) * (getAllSuites.size() - suiteErrCount)) / getAllSuites.size());
+    /**
+     * Returns the automation stability score from the counts of a suite exe history.
+     *
+     * @param suiteCount
+     * @param suiteErrCount
+     * @param falsePositive          suite exes with a false positive child
+     * @param totalTestCaseCount
+     * @param errTestCaseCount
+     * @param falsePositiveTestCount
+     * @return double
+     */
+    public static double getQAScore(long suiteCount, double suiteErrCount, double falsePositive, double totalTestCaseCount,
+                                    double errTestCaseCount, double falsePositiveTestCount) {
+        double finalSuiteScore = (((999 * 0.5) * (suiteCount - suiteErrCount)) / suiteCount);
         double finalTestcaseScore = ((((999 * 0.5) * (totalTestCaseCount - errTestCaseCount)) / totalTestCaseCount));
 
         if (falsePositive != 0.0) {
-            double falsePercentage = (getAllSuites.size() * falsePositive) / 100;
+            double falsePercentage = (suiteCount * falsePositive) / 100;
             finalSuiteScore = finalSuiteScore - (399.6 * falsePercentage) / 100;
         }
         if (falsePositiveTestCount != 0.0) {
@@ -2631,12 +2829,7 @@ public class ReportUtils {
         barChartQuery.with(Sort.by(barChartOrder));
         List<SuiteExeDto> suiteExes = mongoOperations.find(barChartQuery, SuiteExeDto.class);
         if (suiteExes.size() > 0) {
-            List<Long> passCount = new ArrayList<>();
-            List<Long> failCount = new ArrayList<>();
-            List<Long> warnCount = new ArrayList<>();
-            List<Long> infoCount = new ArrayList<>();
-            List<Long> errCount = new ArrayList<>();
-            List<Long> exeCount = new ArrayList<>();
+            List<StatusHistogram> bars = new ArrayList<>();
             List<Long> labels = new ArrayList<>();
             for (SuiteExeDto suiteExe : suiteExes) {
                 Query varianceQuery = new Query(Criteria.where("varianceId").in(suiteExe.getVarianceIds())
@@ -2651,11 +2844,9 @@ public class ReportUtils {
                 }
                 Query query1 = new Query(Criteria.where("s_run_id").is(suiteExe.getS_run_id()));
                 List<TestExeDto> testExeList = mongoOperations.find(query1, TestExeDto.class);
-                Map<String, Long> statusMap = new HashMap<>();
-                for (StatusColor statusColor : StatusColor.values()) {
-                    statusMap.put(statusColor.toString(), 0L);
-                }
-                long totalCount = 0L;
+                Map<String, String> stepVarianceStatuses = checkStatusOfTestCasesByStepsIfVarianceIsThere(testExeList,
+                        varinaceIds, variannceList);
+                StatusHistogram statusHistogram = new StatusHistogram();
                 for (TestExeDto testExe : testExeList) {
                     if (testExe.getVarianceId() != null
                             || (testExe.getStepVarianceIds() != null && testExe.getStepVarianceIds().size() > 0)
@@ -2667,114 +2858,20 @@ public class ReportUtils {
                             if (varianceClassification != null) {
                                 testExe.setStatus("PASS");
                             }
-                            if (checkoneListContainsElementOfAnotherList(varinaceIds,
-                                    testExe.getStepVarianceIds())) {
-                                testExe.setStatus(checkStatusOfTestCaseByStepsIfVarianceIsThere(
-                                        testExe.getTc_run_id(), variannceList));
+                            if (stepVarianceStatuses.containsKey(testExe.getTc_run_id())) {
+                                testExe.setStatus(stepVarianceStatuses.get(testExe.getTc_run_id()));
                             }
                         }
                     }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.PASS.toString())) {
-                        long value = statusMap.get(StatusColor.PASS.toString()) + 1;
-                        statusMap.put(StatusColor.PASS.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.FAIL.toString())) {
-                        long value = statusMap.get(StatusColor.FAIL.toString()) + 1;
-                        statusMap.put(StatusColor.FAIL.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.EXE.toString())) {
-                        long value = statusMap.get(StatusColor.EXE.toString()) + 1;
-                        statusMap.put(StatusColor.EXE.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.ERR.toString())) {
-                        long value = statusMap.get(StatusColor.ERR.toString()) + 1;
-                        statusMap.put(StatusColor.ERR.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.INFO.toString())) {
-                        long value = statusMap.get(StatusColor.INFO.toString()) + 1;
-                        statusMap.put(StatusColor.INFO.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-                    if (testExe.getStatus().toUpperCase().equals(StatusColor.WARN.toString())) {
-                        long value = statusMap.get(StatusColor.WARN.toString()) + 1;
-                        statusMap.put(StatusColor.WARN.toString(), value);
-                        totalCount++;
-                        continue;
-                    }
-
-                }
-
-                for (StatusColor statusColor : StatusColor.values()) {
-                    switch (statusColor.toString()) {
-                        case "PASS":
-                            passCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "FAIL":
-                            failCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "WARN":
-                            warnCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "INFO":
-                            infoCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "ERR":
-                            errCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                        case "EXE":
-                            exeCount.add(statusMap.get(statusColor.toString()));
-                            break;
-                    }
-
+                    statusHistogram.add(testExe.getStatus());
                 }
+                bars.add(statusHistogram);
                 labels.add(suiteExe.getS_start_time());
             }
 
             Map<String, Object> suiteBarGraph = new HashMap<>();
             suiteBarGraph.put("labels", labels);
-            List<Map<String, Object>> datasets = new ArrayList<>();
-
-            for (StatusColor statusColor : StatusColor.values()) {
-                Map<String, Object> datasetmap = new HashMap<>();
-                datasetmap.put("label", statusColor.toString());
-                switch (statusColor.toString().toUpperCase()) {
-                    case "PASS":
-                        datasetmap.put("data", passCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "FAIL":
-                        datasetmap.put("data", failCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "WARN":
-                        datasetmap.put("data", warnCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "INFO":
-                        datasetmap.put("data", infoCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "ERR":
-                        datasetmap.put("data", errCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                    case "EXE":
-                        datasetmap.put("data", exeCount);
-                        datasetmap.put("backgroundColor", statusColor.color);
-                        break;
-                }
-                datasets.add(datasetmap);
-            }
-            suiteBarGraph.put("datasets", datasets);
+            suiteBarGraph.put("datasets", StatusHistogram.toStackedBarDatasets(bars));
             Map<String, Object> stackedBarChartType = new HashMap<>();
             stackedBarChartType.put("subType", "stacked_bar_chart");
             stackedBarChartType.put("heading", "Last 5 Suite Runs");
@@ -0,0 +1,114 @@
+package com.jewel.reportmanager.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes user, project, role, suite exe, test exe and variance lookups for the lifetime of one
+ * HTTP request so each of them reaches the upstream service at most once per request.
+ * <p>
+ * Hits and misses are published as reportmanager.request.memo{lookup, result} under
+ * /actuator/metrics; the hit count is the number of upstream calls saved.
+ */
+@Slf4j
+@Service
+public class RequestMemoUtils {
+
+    public static final String USER_LOOKUP = "user";
+    public static final String PROJECT_LOOKUP = "project";
+    public static final String PROJECT_ROLE_LOOKUP = "projectRole";
+    public static final String SUITE_EXE_LOOKUP = "suiteExe";
+    public static final String TEST_EXE_LOOKUP = "testExe";
+    public static final String VARIANCE_LOOKUP = "variance";
+    public static final String REPORT_VERSION_LOOKUP = "reportVersion";
+
+    private static final String MEMO_ATTRIBUTE = RequestMemoUtils.class.getName() + ".memo";
+
+    private static MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        RequestMemoUtils.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the value memoized for lookup and key in the current request, calling the supplier
+     * only for the first caller. Concurrent callers for the same key wait for that first call.
+     * A failed call is not memoized. Outside of an HTTP request the supplier is always called.
+     * <p>
+     * The value is shared by every caller of the request, its worker threads included, so callers
+     * must not modify it: report builders derive what they change into values of their own.
+     *
+     * @param lookup
+     * @param key
+     * @param supplier
+     * @return T
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T memoize(String lookup, String key, Supplier<T> supplier) {
+        ConcurrentMap<String, CompletableFuture<Object>> memo = getMemo();
+        if (memo == null) {
+            return supplier.get();
+        }
+        String memoKey = lookup + ":" + key;
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = memo.putIfAbsent(memoKey, created);
+        if (existing != null) {
+            count(lookup, "hit");
+            return (T) AsyncUtils.join(existing);
+        }
+        count(lookup, "miss");
+        try {
+            T value = supplier.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            memo.remove(memoKey, created);
+            created.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static ConcurrentMap<String, CompletableFuture<Object>> getMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        try {
+            synchronized (attributes) {
+                @SuppressWarnings("unchecked")
+                ConcurrentMap<String, CompletableFuture<Object>> memo = (ConcurrentMap<String, CompletableFuture<Object>>)
+                        attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (memo == null) {
+                    memo = new ConcurrentHashMap<>();
+                    attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+                }
+                return memo;
+            }
+        } catch (IllegalStateException ex) {
+            log.debug("Request is no longer active, skipping memo: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private static void count(String lookup, String result) {
+        Counter.builder("reportmanager.request.memo")
+                .description("Request-scoped lookups served from the memo (hit) or upstream (miss)")
+                .tag("lookup", lookup)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+}
@@ -1,16 +1,15 @@
 package com.jewel.reportmanager.utils;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
+import com.jewel.reportmanager.cache.AuthorizationCache;
+import com.jewel.reportmanager.cache.SuiteExeCountCache;
 import com.jewel.reportmanager.dto.*;
 import com.jewel.reportmanager.enums.OperationType;
 import com.mongodb.BasicDBObject;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -23,8 +22,9 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,22 +32,77 @@ import java.util.stream.Collectors;
 public class RestApiUtils {
 
     private static String projectManagerUrl;
-    private static RestTemplate restTemplate;
+    private static RestTemplate projectManagerRestTemplate;
     private static String insertionManagerUrl;
+    private static RestTemplate insertionManagerRestTemplate;
+    private static AuthorizationCache authorizationCache;
+    private static int sRunIdsBatchSize;
+    private static boolean statusAggregateEnabled;
+    private static boolean bulkReportNamesEnabled;
+    private static boolean suiteExePageEnabled;
+    private static SuiteExeCountCache suiteExeCountCache;
+
+    @Autowired
+    public void setProjectManagerRestTemplate(@Qualifier("projectManagerRestTemplate") RestTemplate projectManagerRestTemplate) {
+        RestApiUtils.projectManagerRestTemplate = projectManagerRestTemplate;
+    }
+
+    @Autowired
+    public void setInsertionManagerRestTemplate(@Qualifier("insertionManagerRestTemplate") RestTemplate insertionManagerRestTemplate) {
+        RestApiUtils.insertionManagerRestTemplate = insertionManagerRestTemplate;
+    }
+
     @Autowired
-    public void setRestTemplate(RestTemplate restTemplate) {
-        RestApiUtils.restTemplate = restTemplate;
+    public void setAuthorizationCache(AuthorizationCache authorizationCache) {
+        RestApiUtils.authorizationCache = authorizationCache;
     }
+
+    @Autowired
+    public void setSuiteExeCountCache(SuiteExeCountCache suiteExeCountCache) {
+        RestApiUtils.suiteExeCountCache = suiteExeCountCache;
+    }
+
     @Value("${project.manager.url}")
     public void setProjectManagerUrl(String projectManagerUrl) {
         RestApiUtils.projectManagerUrl = projectManagerUrl;
     }
 
+    @Value("${rest.client.insertion.s-run-ids-batch-size:100}")
+    public void setSRunIdsBatchSize(int sRunIdsBatchSize) {
+        RestApiUtils.sRunIdsBatchSize = sRunIdsBatchSize;
+    }
+
+    @Value("${rest.client.insertion.status-aggregate.enabled:false}")
+    public void setStatusAggregateEnabled(boolean statusAggregateEnabled) {
+        RestApiUtils.statusAggregateEnabled = statusAggregateEnabled;
+    }
+
+    @Value("${rest.client.insertion.bulk-report-names.enabled:false}")
+    public void setBulkReportNamesEnabled(boolean bulkReportNamesEnabled) {
+        RestApiUtils.bulkReportNamesEnabled = bulkReportNamesEnabled;
+    }
+
+    @Value("${rest.client.insertion.suite-exe-page.enabled:false}")
+    public void setSuiteExePageEnabled(boolean suiteExePageEnabled) {
+        RestApiUtils.suiteExePageEnabled = suiteExePageEnabled;
+    }
+
     @Value("${insertion.manager.url}")
     public void setInsertionManagerUrl(String insertionManagerUrl) {
         RestApiUtils.insertionManagerUrl = insertionManagerUrl;
     }
-    private static ObjectMapper mapper = new ObjectMapper();
+    private static final ModelMapper modelMapper = new ModelMapper();
+
+    /**
+     * Returns the data of a response envelope, or null when the body is empty.
+     *
+     * @param response
+     * @return T
+     */
+    static <T> T getData(ResponseEntity<ApiResponse<T>> response) {
+        ApiResponse<T> body = response.getBody();
+        return body == null ? null : body.getData();
+    }
 
     /**
      * Returns a list of project role pid(s) for pid, status and username.
@@ -58,6 +113,10 @@ public class RestApiUtils {
      * @return List<Long>
      */
     public static List<Long> getProjectRolePidList(List<Long> pid, String status, String username) {
+        return authorizationCache.filterPids(AuthorizationCache.ROLE_SCOPE, username, status, pid, pids -> fetchProjectRolePidList(pids, status, username));
+    }
+
+    private static List<Long> fetchProjectRolePidList(List<Long> pid, String status, String username) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(null, headers);
@@ -69,16 +128,10 @@ public class RestApiUtils {
         uriVariables.put("status", status);
         uriVariables.put("username", username);
         try {
-            ResponseEntity response = restTemplate.exchange(projectManagerUrl + "/v2/project/role/pid/status/username?pid={pid}&status={status}&username={username}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<Long>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<Long>>> response = projectManagerRestTemplate.exchange(projectManagerUrl + "/v2/project/role/pid/status/username?pid={pid}&status={status}&username={username}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<Long>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Project role pid(s) list is empty for pid: {}", pid);
             return Collections.EMPTY_LIST;
@@ -94,28 +147,24 @@ public class RestApiUtils {
      * @return ProjectRoleDto
      */
     public static ProjectRoleDto getProjectRoleEntity(Long pid, String username, String status) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        uriVariables.put("pid", pid);
-        uriVariables.put("username", username);
-        uriVariables.put("status", status);
-        try {
-            ResponseEntity response = restTemplate.exchange(projectManagerUrl + "/v2/project/role/entity?pid={pid}&userName={username}&status={status}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<ProjectRoleDto>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
-        } catch (HttpClientErrorException.NotFound ex) {
-            log.info("Project role is empty for pid: {}", pid);
-            return null;
-        }
+        return RequestMemoUtils.memoize(RequestMemoUtils.PROJECT_ROLE_LOOKUP, pid + ":" + username + ":" + status, () -> authorizationCache.getProjectRole(pid, username, status, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            HttpEntity httpEntity = new HttpEntity(null, headers);
+            Map<String, Object> uriVariables = new HashMap<>();
+            uriVariables.put("pid", pid);
+            uriVariables.put("username", username);
+            uriVariables.put("status", status);
+            try {
+                ResponseEntity<ApiResponse<ProjectRoleDto>> response = projectManagerRestTemplate.exchange(projectManagerUrl + "/v2/project/role/entity?pid={pid}&userName={username}&status={status}", HttpMethod.GET, httpEntity,
+                        new ParameterizedTypeReference<ApiResponse<ProjectRoleDto>>() {
+                        }, uriVariables);
+                return getData(response);
+            } catch (HttpClientErrorException.NotFound ex) {
+                log.info("Project role is empty for pid: {}", pid);
+                return null;
+            }
+        }));
     }
 
     /**
@@ -126,27 +175,23 @@ public class RestApiUtils {
      * @return ProjectRoleDto
      */
     public static ProjectRoleDto getProjectRoleByPidAndUsername(Long pid, String username) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        uriVariables.put("pid", pid);
-        uriVariables.put("username", username);
-        try {
-            ResponseEntity response = restTemplate.exchange(projectManagerUrl + "/v2/project/role/pid/username?pid={pid}&username={username}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<ProjectRoleDto>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
-        } catch (HttpClientErrorException.NotFound ex) {
-            log.info("Project role is empty for pid: {}", pid);
-            return null;
-        }
+        return RequestMemoUtils.memoize(RequestMemoUtils.PROJECT_ROLE_LOOKUP, pid + ":" + username, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            HttpEntity httpEntity = new HttpEntity(null, headers);
+            Map<String, Object> uriVariables = new HashMap<>();
+            uriVariables.put("pid", pid);
+            uriVariables.put("username", username);
+            try {
+                ResponseEntity<ApiResponse<ProjectRoleDto>> response = projectManagerRestTemplate.exchange(projectManagerUrl + "/v2/project/role/pid/username?pid={pid}&username={username}", HttpMethod.GET, httpEntity,
+                        new ParameterizedTypeReference<ApiResponse<ProjectRoleDto>>() {
+                        }, uriVariables);
+                return getData(response);
+            } catch (HttpClientErrorException.NotFound ex) {
+                log.info("Project role is empty for pid: {}", pid);
+                return null;
+            }
+        });
     }
 
     /**
@@ -158,6 +203,10 @@ public class RestApiUtils {
      * @return List<Long>
      */
     public static List<Long> getProjectPidListForRealCompanyNameAndStatus(List<Long> pid, String status, String realCompanyName) {
+        return authorizationCache.filterPids(AuthorizationCache.COMPANY_SCOPE, realCompanyName, status, pid, pids -> fetchProjectPidListForRealCompanyNameAndStatus(pids, status, realCompanyName));
+    }
+
+    private static List<Long> fetchProjectPidListForRealCompanyNameAndStatus(List<Long> pid, String status, String realCompanyName) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(null, headers);
@@ -169,16 +218,10 @@ public class RestApiUtils {
         uriVariables.put("status", status);
         uriVariables.put("realCompanyName", realCompanyName);
         try {
-            ResponseEntity response = restTemplate.exchange(projectManagerUrl + "/v1/project/pid/status/realCompanyName?pid={pid}&status={status}&realCompanyName={realCompanyName}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<Long>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<Long>>> response = projectManagerRestTemplate.exchange(projectManagerUrl + "/v1/project/pid/status/realCompanyName?pid={pid}&status={status}&realCompanyName={realCompanyName}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<Long>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Project pid(s) list is empty for pid: {}", pid);
             return Collections.EMPTY_LIST;
@@ -193,6 +236,10 @@ public class RestApiUtils {
      * @return List<Long>
      */
     public static List<Long> getProjectPidList(List<Long> pid, String status) {
+        return authorizationCache.filterPids(AuthorizationCache.STATUS_SCOPE, "", status, pid, pids -> fetchProjectPidList(pids, status));
+    }
+
+    private static List<Long> fetchProjectPidList(List<Long> pid, String status) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(null, headers);
@@ -203,16 +250,10 @@ public class RestApiUtils {
         uriVariables.put("pid", pidList);
         uriVariables.put("status", status);
         try {
-            ResponseEntity response = restTemplate.exchange(projectManagerUrl + "/v1/project/pids?pid={pid}&status={status}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<Long>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<Long>>> response = projectManagerRestTemplate.exchange(projectManagerUrl + "/v1/project/pids?pid={pid}&status={status}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<Long>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Project pid(s) list is empty for pid: {}", pid);
             return Collections.EMPTY_LIST;
@@ -235,16 +276,10 @@ public class RestApiUtils {
                 .collect(Collectors.joining(","));
         uriVariables.put("pid", pidList);
         try {
-            ResponseEntity response = restTemplate.exchange(projectManagerUrl + "/v1/project/pid?pid={pid}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<String>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<String>>> response = projectManagerRestTemplate.exchange(projectManagerUrl + "/v1/project/pid?pid={pid}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<String>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Project names list is empty for pid: {}", pid);
             return Collections.EMPTY_LIST;
@@ -260,9 +295,10 @@ public class RestApiUtils {
      * @param s_start_time
      * @param s_end_time
      * @param pageNo
+     * @param cursor rows after it instead of pageNo, when not null
      * @return List<String>
      */
-    public static List<String> getReportNames(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo) {
+    public static List<String> getReportNames(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo, PageCursor cursor) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(null, headers);
@@ -278,16 +314,10 @@ public class RestApiUtils {
         uriVariables.put("s_end_time", s_end_time);
         uriVariables.put("pageNo", pageNo);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/report-names?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<String>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<String>>> response = insertionManagerRestTemplate.exchange(withCursor(insertionManagerUrl + "/v1/suiteExe/report-names?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}", uriVariables, cursor), HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<String>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Report names list is empty for pid: {}, env: {}, start time: {}, end time: {} and pageNo: {}", p_id, env, s_start_time, s_end_time, pageNo);
             return Collections.EMPTY_LIST;
@@ -302,11 +332,12 @@ public class RestApiUtils {
      * @param s_start_time
      * @param s_end_time
      * @param pageNo
+     * @param cursor rows after it instead of pageNo, when not null
      * @param sort
      * @param sortedColumn
      * @return List<SuiteExeDto>
      */
-    public static List<SuiteExeDto> getSuiteExes(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo, Integer sort, String sortedColumn) {
+    public static List<SuiteExeDto> getSuiteExes(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo, PageCursor cursor, Integer sort, String sortedColumn) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(null, headers);
@@ -324,16 +355,10 @@ public class RestApiUtils {
         uriVariables.put("sort", sort);
         uriVariables.put("sortedColumn", sortedColumn);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/suiteExe?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<SuiteExeDto>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<SuiteExeDto>>> response = insertionManagerRestTemplate.exchange(withCursor(insertionManagerUrl + "/v1/suiteExe?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}", uriVariables, cursor), HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<SuiteExeDto>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Suite exe list is empty for pid: {}, env: {}, start time: {}, end time: {} pageNo: {}, sort: {} and sortedColumn: {}", p_id, env, s_start_time, s_end_time, pageNo, sort, sortedColumn);
             return Collections.EMPTY_LIST;
@@ -341,18 +366,54 @@ public class RestApiUtils {
     }
 
     /**
-     * Returns a list of s_run_ids for pid, env, startTime, endTime, page no., sort and sortedColumn.
+     * Returns a page of suite exes for pid, env, startTime, endTime, page no., sort and sortedColumn,
+     * with the total count of suite exes for pid, env, startTime and endTime and the s_run_ids of the
+     * page. The count is served from SuiteExeCountCache when it has it, so it is an estimate.
      *
      * @param p_id
      * @param env
      * @param s_start_time
      * @param s_end_time
      * @param pageNo
+     * @param cursor    rows after it instead of pageNo, when not null
      * @param sort
      * @param sortedColumn
-     * @return List<String>
+     * @param withCount when false the suite exes are not counted, the count is null on a cache miss
+     * @return SuiteExePageDto
      */
-    public static List<String> getS_Run_Ids(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo, Integer sort, String sortedColumn) {
+    public static SuiteExePageDto getSuiteExePage(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo, PageCursor cursor, Integer sort, String sortedColumn, boolean withCount) {
+        Long cachedCount = suiteExeCountCache.getIfPresent(p_id, env, s_start_time, s_end_time);
+        boolean count = withCount && cachedCount == null;
+        SuiteExePageDto page = null;
+        if (suiteExePageEnabled) {
+            try {
+                page = fetchSuiteExePage(p_id, env, s_start_time, s_end_time, pageNo, cursor, sort, sortedColumn, count);
+            } catch (RestClientException ex) {
+                log.warn("Suite exe page could not be fetched in one call, fetching rows and count separately: {}", ex.getMessage());
+            }
+        }
+        if (page == null) {
+            page = getSuiteExePageFromSuiteExes(p_id, env, s_start_time, s_end_time, pageNo, cursor, sort, sortedColumn, count);
+        }
+        if (page.getResults() == null) {
+            page.setResults(Collections.EMPTY_LIST);
+        }
+        if (page.getS_run_ids() == null) {
+            page.setS_run_ids(page.getResults().stream().map(SuiteExeDto::getS_run_id).collect(Collectors.toList()));
+        }
+        if (cachedCount != null) {
+            page.setCount(cachedCount);
+        } else if (!withCount) {
+            page.setCount(null);
+        } else if (page.getCount() == null) {
+            page.setCount(0L);
+        } else {
+            suiteExeCountCache.put(p_id, env, s_start_time, s_end_time, page.getCount());
+        }
+        return page;
+    }
+
+    private static SuiteExePageDto fetchSuiteExePage(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo, PageCursor cursor, Integer sort, String sortedColumn, boolean withCount) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(null, headers);
@@ -369,23 +430,30 @@ public class RestApiUtils {
         uriVariables.put("pageNo", pageNo);
         uriVariables.put("sort", sort);
         uriVariables.put("sortedColumn", sortedColumn);
+        uriVariables.put("count", withCount);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/s_run_ids?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<String>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<SuiteExePageDto>> response = insertionManagerRestTemplate.exchange(withCursor(insertionManagerUrl + "/v1/suiteExe/page?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}&count={count}", uriVariables, cursor), HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<SuiteExePageDto>>() {
+                    }, uriVariables);
+            SuiteExePageDto page = getData(response);
+            return page == null ? new SuiteExePageDto(Collections.EMPTY_LIST, withCount ? 0L : null, Collections.EMPTY_LIST) : page;
         } catch (HttpClientErrorException.NotFound ex) {
-            log.info("s_run_ids list is empty for pid: {}, env: {}, start time: {}, end time: {} pageNo: {}, sort: {} and sortedColumn: {}", p_id, env, s_start_time, s_end_time, pageNo, sort, sortedColumn);
-            return Collections.EMPTY_LIST;
+            log.info("Suite exe page is empty for pid: {}, env: {}, start time: {}, end time: {} pageNo: {}, sort: {} and sortedColumn: {}", p_id, env, s_start_time, s_end_time, pageNo, sort, sortedColumn);
+            return new SuiteExePageDto(Collections.EMPTY_LIST, withCount ? 0L : null, Collections.EMPTY_LIST);
         }
     }
 
+    /**
+     * Fallback of getSuiteExePage for an insertion manager without the page endpoint: the rows and
+     * the count are fetched concurrently, the s_run_ids are taken from the rows.
+     */
+    private static SuiteExePageDto getSuiteExePageFromSuiteExes(List<Long> p_id, List<String> env, Long s_start_time, Long s_end_time, Integer pageNo, PageCursor cursor, Integer sort, String sortedColumn, boolean withCount) {
+        CompletableFuture<Long> countFuture = withCount
+                ? AsyncUtils.supplyAsync(() -> getSuiteExeCount(p_id, env, s_start_time, s_end_time))
+                : CompletableFuture.completedFuture(null);
+        List<SuiteExeDto> suiteExes = getSuiteExes(p_id, env, s_start_time, s_end_time, pageNo, cursor, sort, sortedColumn);
+        return new SuiteExePageDto(suiteExes, AsyncUtils.join(countFuture), null);
+    }
 
     /**
      * Returns a list of suite exes for pid, category, env, reportName, startTime, endTime, page no., sort and sortedColumn.
@@ -397,11 +465,12 @@ public class RestApiUtils {
      * @param s_start_time
      * @param s_end_time
      * @param pageNo
+     * @param cursor rows after it instead of pageNo, when not null
      * @param sort
      * @param sortedColumn
      * @return List<SuiteExeDto>
      */
-    public static List<SuiteExeDto> getSuiteExesForSuiteTimeline(Long p_id, String category, String env, String reportName, Long s_start_time, Long s_end_time, Integer pageNo, Integer sort, String sortedColumn) {
+    public static List<SuiteExeDto> getSuiteExesForSuiteTimeline(Long p_id, String category, String env, String reportName, Long s_start_time, Long s_end_time, Integer pageNo, PageCursor cursor, Integer sort, String sortedColumn) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(null, headers);
@@ -416,16 +485,10 @@ public class RestApiUtils {
         uriVariables.put("sort", sort);
         uriVariables.put("sortedColumn", sortedColumn);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/suiteTimeline?p_id={p_id}&category={category}&env={env}&reportName={reportName}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<SuiteExeDto>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<SuiteExeDto>>> response = insertionManagerRestTemplate.exchange(withCursor(insertionManagerUrl + "/v1/suiteExe/suiteTimeline?p_id={p_id}&category={category}&env={env}&reportName={reportName}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}", uriVariables, cursor), HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<SuiteExeDto>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Suite exe list is empty for pid: {}, category: {}, env: {}, reportName: {}, start time: {}, end time: {} pageNo: {}, sort: {} and sortedColumn: {}", p_id, category, env, reportName, s_start_time, s_end_time, pageNo, sort, sortedColumn);
             return Collections.EMPTY_LIST;
@@ -433,51 +496,17 @@ public class RestApiUtils {
     }
 
     /**
-     * Returns a list of s_run_ids for pid, category, env, reportName, startTime, endTime, page no., sort and sortedColumn.
-     *
-     * @param p_id
-     * @param category
-     * @param env
-     * @param reportName
-     * @param s_start_time
-     * @param s_end_time
-     * @param pageNo
-     * @param sort
-     * @param sortedColumn
-     * @return List<String>
+     * Asks for the rows after cursor (keyset paging) instead of a page number, if there is a cursor.
      */
-    public static List<String> getS_Run_IdsForSuiteTimeline(Long p_id, String category, String env, String reportName, Long s_start_time, Long s_end_time, Integer pageNo, Integer sort, String sortedColumn) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        uriVariables.put("p_id", p_id);
-        uriVariables.put("category", category);
-        uriVariables.put("env", env);
-        uriVariables.put("reportName", reportName);
-        uriVariables.put("s_start_time", s_start_time);
-        uriVariables.put("s_end_time", s_end_time);
-        uriVariables.put("pageNo", pageNo);
-        uriVariables.put("sort", sort);
-        uriVariables.put("sortedColumn", sortedColumn);
-        try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/s_run_ids/suiteTimeline?p_id={p_id}&category={category}&env={env}&reportName={reportName}&s_start_time={s_start_time}&s_end_time={s_end_time}&pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<String>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
-        } catch (HttpClientErrorException.NotFound ex) {
-            log.info("s_run_ids list is empty for pid: {}, category: {}, env: {}, reportName: {}, start time: {}, end time: {} pageNo: {}, sort: {} and sortedColumn: {}", p_id, category, env, reportName, s_start_time, s_end_time, pageNo, sort, sortedColumn);
-            return Collections.EMPTY_LIST;
+    private static String withCursor(String url, Map<String, Object> uriVariables, PageCursor cursor) {
+        if (cursor == null) {
+            return url;
         }
+        uriVariables.put("after_value", cursor.getValue());
+        uriVariables.put("after_id", cursor.getId());
+        return url + "&after_value={after_value}&after_id={after_id}";
     }
 
-
     /**
      * Returns a count of suite exe for pid, env, startTime, endTime and page no.
      *
@@ -501,16 +530,10 @@ public class RestApiUtils {
         uriVariables.put("env", envList);
         uriVariables.put("s_start_time", s_start_time);
         uriVariables.put("s_end_time", s_end_time);
-        ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/count?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-        Gson gson = new Gson();
-        String json = gson.toJson(response.getBody());
-        Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-        }.getType());
-        Object data = convertedMap.get("data");
-        Type type = new TypeToken<Long>() {
-        }.getType();
-
-        return gson.fromJson(gson.toJson(data), type);
+        ResponseEntity<ApiResponse<Long>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/count?p_id={p_id}&env={env}&s_start_time={s_start_time}&s_end_time={s_end_time}", HttpMethod.GET, httpEntity,
+                new ParameterizedTypeReference<ApiResponse<Long>>() {
+                }, uriVariables);
+        return getData(response);
     }
 
     /**
@@ -520,17 +543,19 @@ public class RestApiUtils {
      * @return SuiteExe
      */
     public static SuiteExeDto getSuiteExe(String s_run_id) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        uriVariables.put("s_run_id", s_run_id);
-        try {
-            return restTemplate.exchange(insertionManagerUrl + "/v2/suiteExe?s_run_id={s_run_id}", HttpMethod.GET, httpEntity, SuiteExeDto.class, uriVariables).getBody();
-        } catch (HttpClientErrorException.NotFound ex) {
-            log.info("Suite exe is empty for s_run_id: {}", s_run_id);
-            return null;
-        }
+        return RequestMemoUtils.memoize(RequestMemoUtils.SUITE_EXE_LOOKUP, s_run_id, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            HttpEntity httpEntity = new HttpEntity(null, headers);
+            Map<String, Object> uriVariables = new HashMap<>();
+            uriVariables.put("s_run_id", s_run_id);
+            try {
+                return insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v2/suiteExe?s_run_id={s_run_id}", HttpMethod.GET, httpEntity, SuiteExeDto.class, uriVariables).getBody();
+            } catch (HttpClientErrorException.NotFound ex) {
+                log.info("Suite exe is empty for s_run_id: {}", s_run_id);
+                return null;
+            }
+        });
     }
 
     /**
@@ -546,16 +571,10 @@ public class RestApiUtils {
         Map<String, Object> uriVariables = new HashMap<>();
         uriVariables.put("s_run_id", s_run_id);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v2/suiteRun?s_run_id={s_run_id}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<SuiteRun>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<SuiteRun>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v2/suiteRun?s_run_id={s_run_id}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<SuiteRun>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Suite run is empty for s_run_id: {}", s_run_id);
             return null;
@@ -569,26 +588,22 @@ public class RestApiUtils {
      * @return TestExeDto
      */
     public static TestExeDto getTestExe(String tc_run_id) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        uriVariables.put("tc_run_id", tc_run_id);
-        try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v2/testcase?tc_run_id={tc_run_id}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<TestExeDto>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
-        } catch (HttpClientErrorException.BadRequest ex) {
-            log.info("TestExe not found for tc_run_id: {}", tc_run_id);
-            return null;
-        }
+        return RequestMemoUtils.memoize(RequestMemoUtils.TEST_EXE_LOOKUP, tc_run_id, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            HttpEntity httpEntity = new HttpEntity(null, headers);
+            Map<String, Object> uriVariables = new HashMap<>();
+            uriVariables.put("tc_run_id", tc_run_id);
+            try {
+                ResponseEntity<ApiResponse<TestExeDto>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v2/testcase?tc_run_id={tc_run_id}", HttpMethod.GET, httpEntity,
+                        new ParameterizedTypeReference<ApiResponse<TestExeDto>>() {
+                        }, uriVariables);
+                return getData(response);
+            } catch (HttpClientErrorException.BadRequest ex) {
+                log.info("TestExe not found for tc_run_id: {}", tc_run_id);
+                return null;
+            }
+        });
     }
 
     /**
@@ -606,16 +621,10 @@ public class RestApiUtils {
         uriVariables.put("reportName", reportName);
         uriVariables.put("status", status);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v2/suite/reportName/status?reportName={reportName}&status={status}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<SuiteDto>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<SuiteDto>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v2/suite/reportName/status?reportName={reportName}&status={status}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<SuiteDto>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Suite is empty for reportName: {} and status: {}", reportName, status);
             return null;
@@ -639,16 +648,10 @@ public class RestApiUtils {
         uriVariables.put("projectName", projectName);
         uriVariables.put("status", status);
         try {
-            ResponseEntity response = restTemplate.exchange(projectManagerUrl + "/v1/project/realCompanyName/projectName/status?realCompanyName={realCompanyName}&projectName={projectName}&status={status}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<ProjectDto>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<ProjectDto>> response = projectManagerRestTemplate.exchange(projectManagerUrl + "/v1/project/realCompanyName/projectName/status?realCompanyName={realCompanyName}&projectName={projectName}&status={status}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<ProjectDto>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Project is not found for realCompanyName: {}, projectName: {}, status: {}", realCompanyName, projectName, status);
             return null;
@@ -668,7 +671,7 @@ public class RestApiUtils {
         Map<String, Object> uriVariables = new HashMap<>();
         uriVariables.put("s_run_id", s_run_id);
         try {
-            return restTemplate.exchange(insertionManagerUrl + "/v2/testExe/list?s_run_id={s_run_id}", HttpMethod.GET, httpEntity, new ParameterizedTypeReference<List<TestExeDto>>() {
+            return insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v2/testExe/list?s_run_id={s_run_id}", HttpMethod.GET, httpEntity, new ParameterizedTypeReference<List<TestExeDto>>() {
             }, uriVariables).getBody();
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Suite run is empty for s_run_id: {}", s_run_id);
@@ -690,22 +693,120 @@ public class RestApiUtils {
         String str_s_run_ids = s_run_ids.stream().map(Object::toString).collect(Collectors.joining(","));
         uriVariables.put("s_run_ids", str_s_run_ids);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/testExe?s_run_ids={s_run_ids}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<TestExeDto>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<TestExeDto>>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/testExe?s_run_ids={s_run_ids}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<TestExeDto>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Suite exe list is empty for s_run_ids: {}", s_run_ids);
             return Collections.EMPTY_LIST;
         }
     }
 
+    /**
+     * Returns test exe counts grouped by s_run_id, testcase name and status (upper case) for
+     * s_run_id(s). The s_run_id(s) are sent in chunks of rest.client.insertion.s-run-ids-batch-size,
+     * concurrently, instead of one call per suite run.
+     * <p>
+     * When rest.client.insertion.status-aggregate.enabled is set the insertion manager groups the
+     * counts itself. Otherwise, or if that call fails, they are counted here from a projection-only
+     * fetch.
+     *
+     * @param s_run_ids
+     * @return List<TestExeStatusCountDto>
+     */
+    public static List<TestExeStatusCountDto> getTestExeStatusCounts(List<String> s_run_ids) {
+        if (statusAggregateEnabled) {
+            try {
+                List<TestExeStatusCountDto> counts = new ArrayList<>();
+                for (List<TestExeStatusCountDto> chunk : fetchInChunks(s_run_ids, RestApiUtils::fetchTestExeStatusCounts)) {
+                    counts.addAll(chunk);
+                }
+                return counts;
+            } catch (RestClientException ex) {
+                log.warn("Status aggregate failed, counting test exe statuses locally for s_run_ids: {}", s_run_ids, ex);
+            }
+        }
+        Map<List<String>, TestExeStatusCountDto> counts = new LinkedHashMap<>();
+        for (TestExeSummaryDto testExe : getTestExeSummaryListForS_run_ids(s_run_ids)) {
+            String status = testExe.getStatus() == null ? null : testExe.getStatus().toUpperCase();
+            List<String> key = Arrays.asList(testExe.getS_run_id(), testExe.getName(), status);
+            TestExeStatusCountDto count = counts.get(key);
+            if (count == null) {
+                count = new TestExeStatusCountDto(testExe.getS_run_id(), testExe.getName(), status, 0L);
+                counts.put(key, count);
+            }
+            count.setCount(count.getCount() + 1);
+        }
+        return new ArrayList<>(counts.values());
+    }
+
+    /**
+     * Returns the test exes of s_run_id(s) with only the fields of TestExeSummaryDto. The
+     * s_run_id(s) are sent in chunks of rest.client.insertion.s-run-ids-batch-size, concurrently.
+     *
+     * @param s_run_ids
+     * @return List<TestExeSummaryDto>
+     */
+    public static List<TestExeSummaryDto> getTestExeSummaryListForS_run_ids(List<String> s_run_ids) {
+        List<TestExeSummaryDto> testExes = new ArrayList<>();
+        for (List<TestExeSummaryDto> chunk : fetchInChunks(s_run_ids, RestApiUtils::fetchTestExeSummaryList)) {
+            testExes.addAll(chunk);
+        }
+        return testExes;
+    }
+
+    private static <T> List<List<T>> fetchInChunks(List<String> s_run_ids, Function<List<String>, List<T>> fetch) {
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (int from = 0; from < s_run_ids.size(); from += sRunIdsBatchSize) {
+            List<String> chunk = s_run_ids.subList(from, Math.min(from + sRunIdsBatchSize, s_run_ids.size()));
+            futures.add(AsyncUtils.supplyAsync(() -> fetch.apply(chunk)));
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        for (CompletableFuture<List<T>> future : futures) {
+            List<T> chunk = AsyncUtils.join(future);
+            if (chunk != null) {
+                chunks.add(chunk);
+            }
+        }
+        return chunks;
+    }
+
+    private static List<TestExeStatusCountDto> fetchTestExeStatusCounts(List<String> s_run_ids) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+        HttpEntity httpEntity = new HttpEntity(null, headers);
+        Map<String, Object> uriVariables = new HashMap<>();
+        uriVariables.put("s_run_ids", String.join(",", s_run_ids));
+        try {
+            ResponseEntity<ApiResponse<List<TestExeStatusCountDto>>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/testExe/statusCount/grouped?s_run_ids={s_run_ids}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<TestExeStatusCountDto>>>() {
+                    }, uriVariables);
+            return getData(response);
+        } catch (HttpClientErrorException.NotFound ex) {
+            log.info("Test exe status counts are empty for s_run_ids: {}", s_run_ids);
+            return Collections.emptyList();
+        }
+    }
+
+    private static List<TestExeSummaryDto> fetchTestExeSummaryList(List<String> s_run_ids) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+        HttpEntity httpEntity = new HttpEntity(null, headers);
+        Map<String, Object> uriVariables = new HashMap<>();
+        uriVariables.put("s_run_ids", String.join(",", s_run_ids));
+        uriVariables.put("fields", TestExeSummaryDto.FIELDS);
+        try {
+            ResponseEntity<ApiResponse<List<TestExeSummaryDto>>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/testExe?s_run_ids={s_run_ids}&fields={fields}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<TestExeSummaryDto>>>() {
+                    }, uriVariables);
+            return getData(response);
+        } catch (HttpClientErrorException.NotFound ex) {
+            log.info("Suite exe list is empty for s_run_ids: {}", s_run_ids);
+            return Collections.emptyList();
+        }
+    }
+
     /**
      * Update suite exe for s_run_id.
      *
@@ -718,7 +819,7 @@ public class RestApiUtils {
         HttpEntity httpEntity = new HttpEntity(suiteExeDto, headers);
         Map<String, Object> uriVariables = new HashMap<>();
         uriVariables.put("s_run_id", s_run_id);
-        restTemplate.exchange(insertionManagerUrl + "/v2/suiteExe/update?s_run_id={s_run_id}", HttpMethod.PUT, httpEntity, SuiteExeDto.class, uriVariables).getBody();
+        insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v2/suiteExe/update?s_run_id={s_run_id}", HttpMethod.PUT, httpEntity, SuiteExeDto.class, uriVariables).getBody();
     }
 
     /**
@@ -729,13 +830,15 @@ public class RestApiUtils {
      * @return project
      */
     public static ProjectDto getProjectByPidAndStatus(Long pid, String status) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        uriVariables.put("pid", pid);
-        uriVariables.put("status", status);
-        return restTemplate.exchange(projectManagerUrl + "/v1/project/pid/status?pid={pid}&status={status}", HttpMethod.GET, httpEntity, ProjectDto.class, uriVariables).getBody();
+        return RequestMemoUtils.memoize(RequestMemoUtils.PROJECT_LOOKUP, pid + ":" + status, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            HttpEntity httpEntity = new HttpEntity(null, headers);
+            Map<String, Object> uriVariables = new HashMap<>();
+            uriVariables.put("pid", pid);
+            uriVariables.put("status", status);
+            return projectManagerRestTemplate.exchange(projectManagerUrl + "/v1/project/pid/status?pid={pid}&status={status}", HttpMethod.GET, httpEntity, ProjectDto.class, uriVariables).getBody();
+        });
     }
 
     /**
@@ -746,27 +849,24 @@ public class RestApiUtils {
      * @return List<VarianceClassificationDto>
      */
     public static List<VarianceClassificationDto> getVarianceClassificationList(Set<Long> varianceId, String varianceStatus) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
-        HttpEntity httpEntity = new HttpEntity(null, headers);
-        Map<String, Object> uriVariables = new HashMap<>();
-        uriVariables.put("varianceId", varianceId.stream().filter(Objects::nonNull).map(Object::toString).collect(Collectors.joining(",")));
-        uriVariables.put("varianceStatus", varianceStatus);
-        try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/variance?varianceId={varianceId}&varianceStatus={varianceStatus}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<VarianceClassificationDto>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
-        } catch (HttpClientErrorException.NotFound ex) {
-            log.info("Variance Classification list is empty for varianceId: {} and varianceStatus: {}", varianceId, varianceStatus);
-            return Collections.EMPTY_LIST;
-        }
+        String varianceIds = varianceId.stream().filter(Objects::nonNull).sorted().map(Object::toString).collect(Collectors.joining(","));
+        return RequestMemoUtils.memoize(RequestMemoUtils.VARIANCE_LOOKUP, varianceIds + ":" + varianceStatus, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            HttpEntity httpEntity = new HttpEntity(null, headers);
+            Map<String, Object> uriVariables = new HashMap<>();
+            uriVariables.put("varianceId", varianceIds);
+            uriVariables.put("varianceStatus", varianceStatus);
+            try {
+                ResponseEntity<ApiResponse<List<VarianceClassificationDto>>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/variance?varianceId={varianceId}&varianceStatus={varianceStatus}", HttpMethod.GET, httpEntity,
+                        new ParameterizedTypeReference<ApiResponse<List<VarianceClassificationDto>>>() {
+                        }, uriVariables);
+                return getData(response);
+            } catch (HttpClientErrorException.NotFound ex) {
+                log.info("Variance Classification list is empty for varianceId: {} and varianceStatus: {}", varianceId, varianceStatus);
+                return Collections.EMPTY_LIST;
+            }
+        });
     }
 
     /**
@@ -781,15 +881,16 @@ public class RestApiUtils {
         HttpEntity httpEntity = new HttpEntity<>(null, headers);
 
         try {
-            Response response = restTemplate.exchange(
+            ApiResponse<StepsDto> response = insertionManagerRestTemplate.exchange(
                     insertionManagerUrl + "/v1/steps?tc_run_id={tc_run_id}",
                     HttpMethod.GET,
                     httpEntity,
-                    Response.class,
+                    new ParameterizedTypeReference<ApiResponse<StepsDto>>() {
+                    },
                     Collections.singletonMap("tc_run_id", tc_run_id)
             ).getBody();
-            if(response!= null && response.getOperation().equals(OperationType.Success)){
-                return mapper.convertValue(response.getData(), new TypeReference<>() {});
+            if(response!= null && OperationType.Success.equals(response.getOperation())){
+                return response.getData();
             }
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Steps not found for tc_run_id: {}", tc_run_id);
@@ -818,16 +919,19 @@ public class RestApiUtils {
         uriVariables.put("sortedColumn", sortedColumn);
         uriVariables.put("testCaseIdNeeded", testCaseIdNeeded);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/testExesList?s_run_id={s_run_id}&page={pageNo}&size=8&sortOrder={sortOrder}&sortedColumn={sortedColumn}&testCaseIdNeeded={testCaseIdNeeded}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
+            String url = insertionManagerUrl + "/v1/testExesList?s_run_id={s_run_id}&page={pageNo}&size=8&sortOrder={sortOrder}&sortedColumn={sortedColumn}&testCaseIdNeeded={testCaseIdNeeded}";
             if(testCaseIdNeeded != null && testCaseIdNeeded) {
-                List<TestExeDto2> customList = gson.fromJson(json, new TypeToken<List<TestExeDto2>>() {
-                }.getType());
-                ModelMapper modelMapper = new ModelMapper();
+                List<TestExeDto2> customList = insertionManagerRestTemplate.exchange(url, HttpMethod.GET, httpEntity,
+                        new ParameterizedTypeReference<List<TestExeDto2>>() {
+                        }, uriVariables).getBody();
+                if (customList == null) {
+                    return List.of();
+                }
                 return customList.stream().map(testExeDto2 -> modelMapper.map(testExeDto2, TestExeDto.class)).collect(Collectors.toList());
             }
-            return gson.fromJson(json, new TypeToken<List<TestExeDto>>() {}.getType());
+            return insertionManagerRestTemplate.exchange(url, HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<List<TestExeDto>>() {
+                    }, uriVariables).getBody();
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Test exe list is empty for s_run_id: {} pageNo: {}, sort: {} and sortedColumn: {}", s_run_id, pageNo, sort, sortedColumn);
             return List.of();
@@ -843,7 +947,7 @@ public class RestApiUtils {
         uriVariables.put("sortOrder", sort);
         uriVariables.put("sortedColumn", sortedColumn);
         try {
-           return restTemplate.exchange(
+           return insertionManagerRestTemplate.exchange(
                    insertionManagerUrl + "/v1/fetchTestExesList?s_run_id={s_run_id}&sortOrder={sortOrder}&sortedColumn={sortedColumn}",
                    HttpMethod.GET,
                    httpEntity,
@@ -888,22 +992,79 @@ public class RestApiUtils {
                 .collect(Collectors.joining(","));
         uriVariables.put("env", envList);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/report_name?report_name={report_name}&p_id={p_id}&projects={projects}&s_start_time={s_start_time}&s_end_time={s_end_time}&env={env}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<List<SuiteExeDto>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<List<SuiteExeDto>>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/report_name?report_name={report_name}&p_id={p_id}&projects={projects}&s_start_time={s_start_time}&s_end_time={s_end_time}&env={env}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<SuiteExeDto>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (HttpClientErrorException.NotFound ex) {
             log.info("Suite exe list is empty for reportName: {}, pid: {}, projects: {}, start time: {}, end time: {} and env: {}", reportName, pid, projects, startTime, endTime, envs);
             return Collections.EMPTY_LIST;
         }
     }
 
+    /**
+     * Returns the suite exes of every report name in reportNames, for the same pid, projects, env
+     * and time filters.
+     * <p>
+     * When rest.client.insertion.bulk-report-names.enabled is set the insertion manager is asked
+     * once for all of them. Otherwise, or if that call fails, it is asked once per report name,
+     * concurrently.
+     *
+     * @param reportNames
+     * @param pid
+     * @param projects
+     * @param startTime
+     * @param endTime
+     * @param envs
+     * @return List<SuiteExeDto>
+     */
+    public static List<SuiteExeDto> getSuiteExesForReportNames(List<String> reportNames, List<Long> pid, List<String> projects,
+                                                              long startTime, long endTime, List<String> envs) {
+        if (reportNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (bulkReportNamesEnabled) {
+            try {
+                return fetchSuiteExesForReportNames(reportNames, pid, projects, startTime, endTime, envs);
+            } catch (RestClientException ex) {
+                log.warn("Bulk suite exe fetch failed, fetching per report name for reportNames: {}", reportNames, ex);
+            }
+        }
+        List<CompletableFuture<List<SuiteExeDto>>> futures = new ArrayList<>();
+        for (String reportName : reportNames) {
+            futures.add(AsyncUtils.supplyAsync(() ->
+                    getSuiteExesForReportName(reportName, pid, projects, startTime, endTime, envs)));
+        }
+        List<SuiteExeDto> suiteExes = new ArrayList<>();
+        for (CompletableFuture<List<SuiteExeDto>> future : futures) {
+            suiteExes.addAll(AsyncUtils.join(future));
+        }
+        return suiteExes;
+    }
+
+    private static List<SuiteExeDto> fetchSuiteExesForReportNames(List<String> reportNames, List<Long> pid, List<String> projects,
+                                                                 long startTime, long endTime, List<String> envs) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+        HttpEntity httpEntity = new HttpEntity(null, headers);
+        Map<String, Object> uriVariables = new HashMap<>();
+        uriVariables.put("report_names", String.join(",", reportNames));
+        uriVariables.put("p_id", pid.stream().map(Object::toString).collect(Collectors.joining(",")));
+        uriVariables.put("projects", String.join(",", projects));
+        uriVariables.put("s_start_time", startTime);
+        uriVariables.put("s_end_time", endTime);
+        uriVariables.put("env", String.join(",", envs));
+        try {
+            ResponseEntity<ApiResponse<List<SuiteExeDto>>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/suiteExe/report_names?report_names={report_names}&p_id={p_id}&projects={projects}&s_start_time={s_start_time}&s_end_time={s_end_time}&env={env}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<List<SuiteExeDto>>>() {
+                    }, uriVariables);
+            return getData(response);
+        } catch (HttpClientErrorException.NotFound ex) {
+            log.info("Suite exe list is empty for reportNames: {}, pid: {}, projects: {}, start time: {}, end time: {} and env: {}", reportNames, pid, projects, startTime, endTime, envs);
+            return Collections.emptyList();
+        }
+    }
+
     /**
      * Returns test case count for s_run_id and status.
      *
@@ -923,16 +1084,10 @@ public class RestApiUtils {
                 .collect(Collectors.joining(","));
         uriVariables.put("status", statusList);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/testExe/testCase?s_run_id={s_run_id}&status={status}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<Map<String, Double>>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<Map<String, Double>>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/testExe/testCase?s_run_id={s_run_id}&status={status}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<Map<String, Double>>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (RestClientException ex) {
             log.info("Empty map return for test case count for s_run_id: {} and status: {}", s_run_id, status);
             return Collections.emptyMap();
@@ -944,12 +1099,15 @@ public class RestApiUtils {
      *
      * @param payload
      * @param pageNo
+     * @param cursor    rows after it instead of pageNo, when not null
      * @param sort
      * @param sortedColumn
+     * @param withCount when false the insertion manager is asked to skip the count, which is then
+     *                  null unless it counted anyway
      * @return Map<String, Object> - map all testcases and count.
      */
-    public static Map<String, Object> getAllTestExesForTcRunId(RuleApi payload, Integer pageNo, Integer sort,
-                                                               String sortedColumn) {
+    public static Map<String, Object> getAllTestExesForTcRunId(RuleApi payload, Integer pageNo, PageCursor cursor,
+                                                               Integer sort, String sortedColumn, boolean withCount) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
         HttpEntity httpEntity = new HttpEntity(payload, headers);
@@ -957,31 +1115,29 @@ public class RestApiUtils {
         uriVariables.put("pageNo", pageNo);
         uriVariables.put("sort", sort);
         uriVariables.put("sortedColumn", sortedColumn);
+        String url = insertionManagerUrl + "/v1/testExe/data?pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}";
+        if (!withCount) {
+            url += "&count=false";
+        }
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/testExe/data?pageNo={pageNo}&sort={sort}&sortedColumn={sortedColumn}", HttpMethod.POST, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object  data = convertedMap.get("data");
-            Type type = new TypeToken<Map<String, Object>>() {
-            }.getType();
-
-            convertedMap = gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<Map<String, Object>>> response = insertionManagerRestTemplate.exchange(withCursor(url, uriVariables, cursor), HttpMethod.POST, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<Map<String, Object>>>() {
+                    }, uriVariables);
+            Map<String, Object> data = getData(response);
             Map<String, Object> resultMap = new HashMap<>();
-            resultMap.put("count", (long) Math.floor((Double) convertedMap.get("count")));
-            data = convertedMap.get("results");
-            type = new TypeToken<List<BasicDBObject>>() {
-            }.getType();
-            List<BasicDBObject> basicDBObjectList = gson.fromJson(gson.toJson(data), type);
-            for (BasicDBObject basicDBOBject: basicDBObjectList) {
-                Object d = basicDBOBject.get("result");
-                gson = new Gson();
-                type = new TypeToken<List<Document>>() {
-                }.getType();
-                basicDBOBject.put("result",gson.fromJson(gson.toJson(d), type));
-                basicDBOBject.put("end_time",(long) Math.floor((Double) basicDBOBject.get("end_time")));
-                basicDBOBject.put("start_time",(long) Math.floor((Double) basicDBOBject.get("start_time")));
+            Number count = (Number) data.get("count");
+            resultMap.put("count", count == null ? null : count.longValue());
+            List<BasicDBObject> basicDBObjectList = new ArrayList<>();
+            for (Map<String, Object> testExe : (List<Map<String, Object>>) data.get("results")) {
+                BasicDBObject basicDBOBject = new BasicDBObject(testExe);
+                List<Document> suiteExes = new ArrayList<>();
+                for (Map<String, Object> suiteExe : (List<Map<String, Object>>) testExe.get("result")) {
+                    suiteExes.add(new Document(suiteExe));
+                }
+                basicDBOBject.put("result", suiteExes);
+                basicDBOBject.put("end_time", ((Number) testExe.get("end_time")).longValue());
+                basicDBOBject.put("start_time", ((Number) testExe.get("start_time")).longValue());
+                basicDBObjectList.add(basicDBOBject);
             }
 
             resultMap.put("results", basicDBObjectList);
@@ -1000,16 +1156,10 @@ public class RestApiUtils {
         uriVariables.put("s_run_id", s_run_id);
         uriVariables.put("status", status);
         try {
-            ResponseEntity response = restTemplate.exchange(insertionManagerUrl + "/v1/testExe/statusCount?s_run_id={s_run_id}&status={status}", HttpMethod.GET, httpEntity, Object.class, uriVariables);
-            Gson gson = new Gson();
-            String json = gson.toJson(response.getBody());
-            Map<String, Object> convertedMap = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            Object data = convertedMap.get("data");
-            Type type = new TypeToken<Long>() {
-            }.getType();
-
-            return gson.fromJson(gson.toJson(data), type);
+            ResponseEntity<ApiResponse<Long>> response = insertionManagerRestTemplate.exchange(insertionManagerUrl + "/v1/testExe/statusCount?s_run_id={s_run_id}&status={status}", HttpMethod.GET, httpEntity,
+                    new ParameterizedTypeReference<ApiResponse<Long>>() {
+                    }, uriVariables);
+            return getData(response);
         } catch (RestClientException ex) {
             log.info("Error while fetching status wise count for s_run_id: {} and status: {}", s_run_id, status);
             return null;
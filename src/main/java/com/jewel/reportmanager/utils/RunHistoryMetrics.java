@@ -0,0 +1,223 @@
+package com.jewel.reportmanager.utils;
+
+import com.jewel.reportmanager.dto.SuiteExeDto;
+import com.jewel.reportmanager.dto.TestExeCommonDto;
+import com.jewel.reportmanager.enums.StatusColor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Broken index, average fix time, downtime, failing since, last pass and last run status of a run
+ * history (suite exes or test exes), accumulated in one pass over its runs in chronological order.
+ * <p>
+ * Statuses are parsed once per run into a StatusColor (unknown ones as OTHERS). Two accumulators
+ * of consecutive partitions of a history can be merged, so a history can be split by time (e.g.
+ * day buckets) and evaluated in parallel.
+ */
+@Getter
+@Setter
+public class RunHistoryMetrics {
+
+    private long runs;
+
+    private long failCount;
+
+    private long transitions;
+
+    private long fixTimeSum;
+
+    private long fixCount;
+
+    private StatusColor firstStatus;
+
+    private long firstTime;
+
+    private StatusColor lastStatus;
+
+    private String lastStatusName;
+
+    private long lastTime;
+
+    private long lastPassTime;
+
+    /**
+     * Failing time of the oldest run after the last PASS, null when the last run is a PASS.
+     */
+    private Long firstFailedAtAfterLastPass;
+
+    private long trailingFailCount;
+
+    /**
+     * Returns the metrics of suiteExes, in any order.
+     *
+     * @param suiteExes
+     * @return RunHistoryMetrics
+     */
+    public static RunHistoryMetrics ofSuiteExes(List<SuiteExeDto> suiteExes) {
+        List<SuiteExeDto> sortedSuites = new ArrayList<>(suiteExes);
+        sortedSuites.sort(Comparator.comparingLong(SuiteExeDto::getS_start_time));
+        RunHistoryMetrics metrics = new RunHistoryMetrics();
+        for (SuiteExeDto suiteExe : sortedSuites) {
+            metrics.add(suiteExe);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics of testExes, in any order.
+     *
+     * @param testExes
+     * @return RunHistoryMetrics
+     */
+    public static RunHistoryMetrics ofTestExes(List<TestExeCommonDto> testExes) {
+        List<TestExeCommonDto> sortedTestExes = new ArrayList<>(testExes);
+        sortedTestExes.sort(Comparator.comparingLong(TestExeCommonDto::getStart_time));
+        RunHistoryMetrics metrics = new RunHistoryMetrics();
+        for (TestExeCommonDto testExe : sortedTestExes) {
+            metrics.add(testExe.getStatus(), testExe.getStart_time(), testExe.getEnd_time());
+        }
+        return metrics;
+    }
+
+    /**
+     * Adds a suite exe that started after every run added so far. Downtime counts from its start.
+     *
+     * @param suiteExe
+     */
+    public void add(SuiteExeDto suiteExe) {
+        add(suiteExe.getStatus(), suiteExe.getS_start_time(), suiteExe.getS_start_time());
+    }
+
+    /**
+     * Adds a run that started after every run added so far.
+     *
+     * @param status
+     * @param time     start time of the run
+     * @param failedAt time the downtime counts from if this run starts it
+     */
+    public void add(String status, long time, long failedAt) {
+        StatusColor statusColor = StatusHistogram.parse(status);
+        if (statusColor == null) {
+            statusColor = StatusColor.OTHERS;
+        }
+        if (runs == 0) {
+            firstStatus = statusColor;
+            firstTime = time;
+        } else {
+            if (isNonFailure(lastStatus) && isFailure(statusColor)) {
+                transitions++;
+            }
+            if (isFailure(lastStatus) && isNonFailure(statusColor)) {
+                fixTimeSum += time - lastTime;
+                fixCount++;
+            }
+        }
+        runs++;
+        if (statusColor == StatusColor.FAIL) {
+            failCount++;
+            trailingFailCount++;
+        } else {
+            trailingFailCount = 0;
+        }
+        if (statusColor == StatusColor.PASS) {
+            lastPassTime = time;
+            firstFailedAtAfterLastPass = null;
+        } else if (firstFailedAtAfterLastPass == null) {
+            firstFailedAtAfterLastPass = failedAt;
+        }
+        lastStatus = statusColor;
+        lastStatusName = status;
+        lastTime = time;
+    }
+
+    /**
+     * Merges next, whose runs all started after the runs of this, into this.
+     *
+     * @param next
+     */
+    public void merge(RunHistoryMetrics next) {
+        if (next.runs == 0) {
+            return;
+        }
+        if (runs == 0) {
+            firstStatus = next.firstStatus;
+            firstTime = next.firstTime;
+        } else {
+            if (isNonFailure(lastStatus) && isFailure(next.firstStatus)) {
+                transitions++;
+            }
+            if (isFailure(lastStatus) && isNonFailure(next.firstStatus)) {
+                fixTimeSum += next.firstTime - lastTime;
+                fixCount++;
+            }
+        }
+        // without a PASS in next, the failing streak of this (if any) carries on into next
+        if (next.lastPassTime > 0 || firstFailedAtAfterLastPass == null) {
+            firstFailedAtAfterLastPass = next.firstFailedAtAfterLastPass;
+        }
+        trailingFailCount = next.trailingFailCount == next.runs ? trailingFailCount + next.trailingFailCount : next.trailingFailCount;
+        runs += next.runs;
+        failCount += next.failCount;
+        transitions += next.transitions;
+        fixTimeSum += next.fixTimeSum;
+        fixCount += next.fixCount;
+        if (next.lastPassTime > 0) {
+            lastPassTime = next.lastPassTime;
+        }
+        lastStatus = next.lastStatus;
+        lastStatusName = next.lastStatusName;
+        lastTime = next.lastTime;
+    }
+
+    /**
+     * @return transitions from a passing to a failing run per half of the runs, 1 when every run failed
+     */
+    public double getBrokenIndex() {
+        if (runs == 0) {
+            return 0;
+        }
+        if (failCount == runs) {
+            return 1.0;
+        }
+        if (transitions == 0) {
+            return 0.0;
+        }
+        return Math.round((double) transitions / (runs / (double) 2) * 100.0) / 100.0;
+    }
+
+    /**
+     * @return average time in seconds from a failing run to the next passing run
+     */
+    public double getAverageFixTime() {
+        if (fixCount == 0) {
+            return 0;
+        }
+        return (double) fixTimeSum / fixCount / 1000;
+    }
+
+    /**
+     * @return seconds since the oldest run after the last PASS, 0 when the last run is a PASS
+     */
+    public long getDownTime() {
+        if (lastStatus == StatusColor.PASS || firstFailedAtAfterLastPass == null) {
+            return 0;
+        }
+        long downTime = (new Date().getTime() - firstFailedAtAfterLastPass) / 1000;
+        return Math.max(downTime, 0);
+    }
+
+    private static boolean isFailure(StatusColor status) {
+        return status == StatusColor.FAIL || status == StatusColor.ERR;
+    }
+
+    private static boolean isNonFailure(StatusColor status) {
+        return status == StatusColor.PASS || status == StatusColor.INFO || status == StatusColor.EXE
+                || status == StatusColor.WARN;
+    }
+
+}
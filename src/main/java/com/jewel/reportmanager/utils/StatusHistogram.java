@@ -0,0 +1,163 @@
+package com.jewel.reportmanager.utils;
+
+import com.jewel.reportmanager.enums.StatusColor;
+
+import java.util.*;
+
+import static com.jewel.reportmanager.enums.StatusColor.*;
+
+/**
+ * Number of test exes / suite exes per status, kept in a long[] indexed by StatusColor ordinal.
+ * Only PASS, FAIL, EXE, ERR, INFO and WARN are counted; any other status is ignored.
+ */
+public class StatusHistogram {
+
+    public static final List<StatusColor> COUNTED_STATUSES = List.of(PASS, FAIL, EXE, ERR, INFO, WARN);
+
+    private static final StatusColor[] STATUS_COLORS = StatusColor.values();
+    private static final boolean[] COUNTED = new boolean[STATUS_COLORS.length];
+
+    static {
+        for (StatusColor statusColor : COUNTED_STATUSES) {
+            COUNTED[statusColor.ordinal()] = true;
+        }
+    }
+
+    private final long[] counts = new long[STATUS_COLORS.length];
+    private long total;
+
+    /**
+     * Returns the StatusColor of status ignoring case, or null if there is none.
+     *
+     * @param status
+     * @return StatusColor
+     */
+    public static StatusColor parse(String status) {
+        if (status == null) {
+            return null;
+        }
+        for (StatusColor statusColor : STATUS_COLORS) {
+            if (statusColor.name().equalsIgnoreCase(status)) {
+                return statusColor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts one test exe of status.
+     *
+     * @param status
+     * @return true if status is counted
+     */
+    public boolean add(String status) {
+        return add(status, 1L);
+    }
+
+    /**
+     * Counts count test exes of status.
+     *
+     * @param status
+     * @param count
+     * @return true if status is counted
+     */
+    public boolean add(String status, long count) {
+        StatusColor statusColor = parse(status);
+        if (statusColor == null || !COUNTED[statusColor.ordinal()]) {
+            return false;
+        }
+        counts[statusColor.ordinal()] += count;
+        total += count;
+        return true;
+    }
+
+    public void merge(StatusHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long get(StatusColor statusColor) {
+        return counts[statusColor.ordinal()];
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return count of every StatusColor by name, uncounted ones as 0
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (StatusColor statusColor : STATUS_COLORS) {
+            map.put(statusColor.toString(), counts[statusColor.ordinal()]);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the doughnut chart payload of ReportUtils.createDoughnutChart with every StatusColor
+     * as a label.
+     *
+     * @return map
+     */
+    public Map<String, Object> toDoughnutChart() {
+        return toDoughnutChart(Arrays.asList(STATUS_COLORS));
+    }
+
+    /**
+     * Returns the doughnut chart payload of ReportUtils.createDoughnutChart for the given labels.
+     *
+     * @param labels
+     * @return map
+     */
+    public Map<String, Object> toDoughnutChart(List<StatusColor> labels) {
+        List<String> labelNames = new ArrayList<>(labels.size());
+        List<Long> data = new ArrayList<>(labels.size());
+        List<String> colors = new ArrayList<>(labels.size());
+        for (StatusColor statusColor : labels) {
+            labelNames.add(statusColor.toString());
+            data.add(counts[statusColor.ordinal()]);
+            colors.add(statusColor.color);
+        }
+        Map<String, Object> datasetValue = new HashMap<>();
+        datasetValue.put("data", data);
+        datasetValue.put("borderWidth", 1);
+        datasetValue.put("backgroundColor", colors);
+        datasetValue.put("borderColor", new ArrayList<>(colors));
+        List<Object> datasets = new ArrayList<>();
+        datasets.add(datasetValue);
+        Map<String, Object> map = new HashMap<>();
+        map.put("datasets", datasets);
+        map.put("labels", labelNames);
+        return map;
+    }
+
+    /**
+     * Returns the datasets of a stacked bar chart with one bar per histogram: one dataset per
+     * StatusColor, with data and backgroundColor for the counted statuses.
+     *
+     * @param bars
+     * @return List<Map<String, Object>>
+     */
+    public static List<Map<String, Object>> toStackedBarDatasets(List<StatusHistogram> bars) {
+        List<Map<String, Object>> datasets = new ArrayList<>();
+        for (StatusColor statusColor : STATUS_COLORS) {
+            Map<String, Object> datasetmap = new HashMap<>();
+            datasetmap.put("label", statusColor.toString());
+            if (COUNTED[statusColor.ordinal()]) {
+                List<Long> data = new ArrayList<>(bars.size());
+                for (StatusHistogram bar : bars) {
+                    data.add(bar.counts[statusColor.ordinal()]);
+                }
+                datasetmap.put("data", data);
+                datasetmap.put("backgroundColor", statusColor.color);
+            }
+            datasets.add(datasetmap);
+        }
+        return datasets;
+    }
+
+}
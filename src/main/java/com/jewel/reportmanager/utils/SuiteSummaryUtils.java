@@ -0,0 +1,573 @@
+package com.jewel.reportmanager.utils;
+
+import com.jewel.reportmanager.dto.SuiteExeDto;
+import com.jewel.reportmanager.dto.TestExeDto;
+import com.jewel.reportmanager.dto.TestExeStatusCountDto;
+import com.jewel.reportmanager.entity.SuiteSummaryBucket;
+import com.jewel.reportmanager.entity.SuiteSummaryBucket.SuiteRunRef;
+import com.jewel.reportmanager.entity.SuiteSummaryBucket.TestCaseCount;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Suite summary and suite diagnose metrics of a (pid, report name, env) history, merged from
+ * materialized day buckets.
+ * <p>
+ * A day is fetched from the insertion manager once; when it is over (plus
+ * suite-summary.buckets.close-after-ms) and none of its suite exes is still EXE, its bucket is
+ * stored in suite_summary_bucket and later requests only merge the stored buckets. Runs are
+ * evaluated in chronological order. Stored buckets expire after 7 days, or can be dropped with
+ * DELETE /v1/cache/suiteSummary.
+ */
+@Slf4j
+@Service
+public class SuiteSummaryUtils {
+
+    public static final int LAST_RUNS = 5;
+    private static final int FALSE_POSITIVE_BATCH_SIZE = 1000;
+
+    private static MongoOperations mongoOperations;
+    private static boolean bucketsEnabled;
+    private static long closeAfter;
+    private static int parallelism;
+    private static long groupTimeout;
+
+    @Autowired
+    public void setMongoOperations(MongoOperations mongoOperations) {
+        SuiteSummaryUtils.mongoOperations = mongoOperations;
+    }
+
+    @Value("${suite-summary.buckets.enabled:true}")
+    public void setBucketsEnabled(boolean bucketsEnabled) {
+        SuiteSummaryUtils.bucketsEnabled = bucketsEnabled;
+    }
+
+    @Value("${suite-summary.buckets.close-after-ms:3600000}")
+    public void setCloseAfter(long closeAfter) {
+        SuiteSummaryUtils.closeAfter = closeAfter;
+    }
+
+    @Value("${suite-summary.parallelism:4}")
+    public void setParallelism(int parallelism) {
+        SuiteSummaryUtils.parallelism = parallelism;
+    }
+
+    @Value("${suite-summary.group-timeout-ms:20000}")
+    public void setGroupTimeout(long groupTimeout) {
+        SuiteSummaryUtils.groupTimeout = groupTimeout;
+    }
+
+    /**
+     * Returns the merged suite summary of every (pid, report name, env) group with at least one
+     * suite exe between startTime and endTime, per report name in the order of reportNames.
+     * <p>
+     * The stored buckets of all report names are read with one query, and the suite exes (and their
+     * test exe status and false positive counts) of the days missing for any of them are fetched once
+     * for the whole page. Buckets are then built and merged concurrently per report name, at most
+     * suite-summary.parallelism at once; a report name that takes longer than
+     * suite-summary.group-timeout-ms is mapped to null.
+     * <p>
+     * Buckets are looked up per pid and env of the request, so projects is expected to name the
+     * projects of pid.
+     *
+     * @param reportNames
+     * @param pid
+     * @param projects
+     * @param startTime
+     * @param endTime
+     * @param envs
+     * @return Map<String, List<SuiteSummaryBucket>>
+     */
+    public static Map<String, List<SuiteSummaryBucket>> getSuiteSummaries(List<String> reportNames, List<Long> pid,
+                                                                        List<String> projects, long startTime,
+                                                                        long endTime, List<String> envs) {
+        boolean useBuckets = bucketsEnabled && !pid.isEmpty() && !envs.isEmpty();
+        Map<String, List<SuiteSummaryBucket>> storedBuckets = new HashMap<>();
+        Map<String, long[]> missingRanges = new HashMap<>();
+        if (useBuckets) {
+            for (SuiteSummaryBucket bucket : findBuckets(reportNames, pid, envs, startTime, endTime)) {
+                storedBuckets.computeIfAbsent(bucket.getReportName(), k -> new ArrayList<>()).add(bucket);
+            }
+            for (String reportName : reportNames) {
+                long[] missingRange = getMissingRange(reportName,
+                        storedBuckets.getOrDefault(reportName, Collections.emptyList()), pid, envs, startTime, endTime);
+                if (missingRange != null) {
+                    missingRanges.put(reportName, missingRange);
+                }
+            }
+        } else {
+            for (String reportName : reportNames) {
+                missingRanges.put(reportName, new long[]{startTime, endTime});
+            }
+        }
+        Map<String, List<SuiteExeDto>> suitesByReportName = getSuiteExes(missingRanges, pid, projects, envs);
+        List<SuiteExeDto> allSuiteExes = new ArrayList<>();
+        suitesByReportName.values().forEach(allSuiteExes::addAll);
+        Map<String, List<TestExeStatusCountDto>> statusCounts = getTestExeStatusCounts(allSuiteExes);
+        Map<String, Long> falsePositiveCounts = getFalsePositiveTestExeCounts(allSuiteExes);
+
+        List<List<SuiteSummaryBucket>> summaries = AsyncUtils.mapBounded(reportNames, reportName -> {
+            List<SuiteExeDto> suiteExes = suitesByReportName.getOrDefault(reportName, Collections.emptyList());
+            if (!useBuckets) {
+                return getSuiteSummariesFromSuiteExes(reportName, suiteExes, statusCounts, falsePositiveCounts, startTime,
+                        endTime);
+            }
+            List<SuiteSummaryBucket> buckets = new ArrayList<>(storedBuckets.getOrDefault(reportName, Collections.emptyList()));
+            long[] missingRange = missingRanges.get(reportName);
+            if (missingRange != null) {
+                buckets.addAll(materializeBuckets(reportName, pid, envs, suiteExes, statusCounts, falsePositiveCounts,
+                        missingRange[0], missingRange[1], endTime, getIds(buckets)));
+            }
+            return mergeBuckets(reportName, buckets, startTime, endTime);
+        }, parallelism, groupTimeout, reportName -> null);
+        Map<String, List<SuiteSummaryBucket>> summaryGroups = new LinkedHashMap<>();
+        for (int i = 0; i < reportNames.size(); i++) {
+            summaryGroups.put(reportNames.get(i), summaries.get(i));
+        }
+        return summaryGroups;
+    }
+
+    /**
+     * Returns [from, to) covering every day of reportName between startTime and endTime that has no
+     * stored bucket for some pid and env, or null if all of them are stored.
+     */
+    private static long[] getMissingRange(String reportName, List<SuiteSummaryBucket> buckets, List<Long> pid,
+                                          List<String> envs, long startTime, long endTime) {
+        Set<String> stored = getIds(buckets);
+        long missingFrom = Long.MAX_VALUE;
+        long missingTo = Long.MIN_VALUE;
+        for (Long bucketStart : getBucketStarts(startTime, endTime)) {
+            for (Long p_id : pid) {
+                for (String env : envs) {
+                    if (!stored.contains(getBucketId(p_id, reportName, env, bucketStart))) {
+                        missingFrom = Math.min(missingFrom, bucketStart);
+                        missingTo = Math.max(missingTo, getBucketEnd(bucketStart, endTime));
+                    }
+                }
+            }
+        }
+        return missingFrom < missingTo ? new long[]{missingFrom, missingTo} : null;
+    }
+
+    /**
+     * Fetches the suite exes of every report name of ranges with one call over the union of the
+     * ranges, and keeps each report name's suite exes within its own range.
+     */
+    private static Map<String, List<SuiteExeDto>> getSuiteExes(Map<String, long[]> ranges, List<Long> pid,
+                                                               List<String> projects, List<String> envs) {
+        if (ranges.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (long[] range : ranges.values()) {
+            from = Math.min(from, range[0]);
+            to = Math.max(to, range[1]);
+        }
+        List<SuiteExeDto> suiteExes = RestApiUtils.getSuiteExesForReportNames(new ArrayList<>(ranges.keySet()), pid,
+                projects, from, to, envs);
+        Map<String, List<SuiteExeDto>> suitesByReportName = new HashMap<>();
+        for (SuiteExeDto suiteExe : suiteExes) {
+            long[] range = ranges.get(suiteExe.getReport_name());
+            if (range != null && suiteExe.getS_start_time() >= range[0] && suiteExe.getS_start_time() < range[1]) {
+                suitesByReportName.computeIfAbsent(suiteExe.getReport_name(), k -> new ArrayList<>()).add(suiteExe);
+            }
+        }
+        return suitesByReportName;
+    }
+
+    /**
+     * Merges the buckets of reportName per pid and env in time order, dropping groups without suite
+     * exes.
+     */
+    private static List<SuiteSummaryBucket> mergeBuckets(String reportName, List<SuiteSummaryBucket> buckets,
+                                                         long startTime, long endTime) {
+        Map<String, List<SuiteSummaryBucket>> bucketsByGroup = new HashMap<>();
+        for (SuiteSummaryBucket bucket : buckets) {
+            String key = getGroupKey(bucket.getPid(), reportName, bucket.getEnv());
+            bucketsByGroup.computeIfAbsent(key, k -> new ArrayList<>()).add(bucket);
+        }
+        List<SuiteSummaryBucket> summaries = new ArrayList<>();
+        for (List<SuiteSummaryBucket> groupBuckets : bucketsByGroup.values()) {
+            groupBuckets.sort(Comparator.comparingLong(SuiteSummaryBucket::getBucketStart));
+            SuiteSummaryBucket summary = newBucket(groupBuckets.get(0).getPid(), reportName, groupBuckets.get(0).getEnv(),
+                    startTime, endTime);
+            for (SuiteSummaryBucket bucket : groupBuckets) {
+                merge(summary, bucket);
+            }
+            if (summary.getSuiteCount() > 0) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Builds one bucket per pid, env and day of [from, to) of reportName from suiteExes, and stores
+     * the closed ones (including empty ones) that are not stored yet.
+     */
+    private static List<SuiteSummaryBucket> materializeBuckets(String reportName, List<Long> pid, List<String> envs,
+                                                               List<SuiteExeDto> suiteExes,
+                                                               Map<String, List<TestExeStatusCountDto>> statusCounts,
+                                                               Map<String, Long> falsePositiveCounts,
+                                                               long from, long to, long endTime, Set<String> stored) {
+        Map<String, List<SuiteExeDto>> suitesByBucket = new HashMap<>();
+        for (SuiteExeDto suiteExe : suiteExes) {
+            String bucketId = getBucketId(suiteExe.getP_id(), reportName, suiteExe.getEnv().toLowerCase(),
+                    Math.max(getBucketStart(suiteExe.getS_start_time()), from));
+            suitesByBucket.computeIfAbsent(bucketId, k -> new ArrayList<>()).add(suiteExe);
+        }
+
+        long closedBefore = System.currentTimeMillis() - closeAfter;
+        List<SuiteSummaryBucket> buckets = new ArrayList<>();
+        List<SuiteSummaryBucket> closedBuckets = new ArrayList<>();
+        for (Long bucketStart : getBucketStarts(from, to)) {
+            long bucketEnd = getBucketEnd(bucketStart, endTime);
+            for (Long p_id : pid) {
+                for (String env : envs) {
+                    String bucketId = getBucketId(p_id, reportName, env, bucketStart);
+                    if (stored.contains(bucketId)) {
+                        continue;
+                    }
+                    SuiteSummaryBucket bucket = newBucket(p_id, reportName, env, bucketStart, bucketEnd);
+                    List<SuiteExeDto> bucketSuites = suitesByBucket.getOrDefault(bucketId, Collections.emptyList());
+                    addSuiteExes(bucket, bucketSuites, statusCounts, falsePositiveCounts);
+                    buckets.add(bucket);
+                    if (isFullDay(bucketStart, bucketEnd) && bucketEnd <= closedBefore
+                            && bucketSuites.stream().noneMatch(suite -> suite.getStatus().equalsIgnoreCase("EXE"))) {
+                        bucket.setMaterializedAt(new Date());
+                        closedBuckets.add(bucket);
+                    }
+                }
+            }
+        }
+        saveBuckets(closedBuckets);
+        return buckets;
+    }
+
+    /**
+     * Builds the summaries of reportName straight from its suite exes, without reading or storing
+     * buckets.
+     */
+    private static List<SuiteSummaryBucket> getSuiteSummariesFromSuiteExes(String reportName, List<SuiteExeDto> suiteExes,
+                                                                          Map<String, List<TestExeStatusCountDto>> statusCounts,
+                                                                          Map<String, Long> falsePositiveCounts,
+                                                                          long startTime, long endTime) {
+        List<SuiteSummaryBucket> summaries = new ArrayList<>();
+        for (List<SuiteExeDto> suites : ReportUtils.groupSuiteExes(suiteExes).values()) {
+            SuiteExeDto suiteExe = suites.get(0);
+            SuiteSummaryBucket summary = newBucket(suiteExe.getP_id(), reportName, suiteExe.getEnv().toLowerCase(),
+                    startTime, endTime);
+            addSuiteExes(summary, suites, statusCounts, falsePositiveCounts);
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private static Map<String, List<TestExeStatusCountDto>> getTestExeStatusCounts(List<SuiteExeDto> suiteExes) {
+        if (suiteExes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> sRunIds = suiteExes.stream().map(SuiteExeDto::getS_run_id).collect(Collectors.toList());
+        return RestApiUtils.getTestExeStatusCounts(sRunIds).stream()
+                .collect(Collectors.groupingBy(TestExeStatusCountDto::getS_run_id));
+    }
+
+    /**
+     * Returns the number of false positive test exes (classificationDetails.childFalsePostiveStatus)
+     * by s_run_id, counted in one aggregation per FALSE_POSITIVE_BATCH_SIZE suite exes. Suite runs
+     * without any are left out.
+     */
+    private static Map<String, Long> getFalsePositiveTestExeCounts(List<SuiteExeDto> suiteExes) {
+        List<String> sRunIds = suiteExes.stream().map(SuiteExeDto::getS_run_id).collect(Collectors.toList());
+        Map<String, Long> counts = new HashMap<>();
+        for (int from = 0; from < sRunIds.size(); from += FALSE_POSITIVE_BATCH_SIZE) {
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("s_run_id")
+                            .in(sRunIds.subList(from, Math.min(sRunIds.size(), from + FALSE_POSITIVE_BATCH_SIZE)))
+                            .and("classificationDetails.childFalsePostiveStatus").is(true)),
+                    Aggregation.group("s_run_id").count().as("count"));
+            for (Document count : mongoOperations.aggregate(aggregation, TestExeDto.class, Document.class)) {
+                counts.put(count.getString("_id"), ((Number) count.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Adds suiteExes to bucket in chronological order, with the test exe counts of each run.
+     *
+     * @param bucket
+     * @param suiteExes
+     * @param statusCounts        test exe counts by s_run_id, see RestApiUtils.getTestExeStatusCounts
+     * @param falsePositiveCounts false positive test exe counts by s_run_id
+     */
+    public static void addSuiteExes(SuiteSummaryBucket bucket, List<SuiteExeDto> suiteExes,
+                                    Map<String, List<TestExeStatusCountDto>> statusCounts,
+                                    Map<String, Long> falsePositiveCounts) {
+        if (suiteExes.isEmpty()) {
+            return;
+        }
+        List<SuiteExeDto> sortedSuites = new ArrayList<>(suiteExes);
+        sortedSuites.sort(Comparator.comparingLong(SuiteExeDto::getS_start_time));
+        Map<String, TestCaseCount> testCaseCounts = toMap(bucket.getTestCaseCounts());
+        for (SuiteExeDto suiteExe : sortedSuites) {
+            addSuiteExe(bucket, suiteExe);
+            bucket.setFalsePositiveTestExeCount(bucket.getFalsePositiveTestExeCount()
+                    + falsePositiveCounts.getOrDefault(suiteExe.getS_run_id(), 0L));
+            for (TestExeStatusCountDto statusCount : statusCounts.getOrDefault(suiteExe.getS_run_id(), Collections.emptyList())) {
+                addTestExeCount(bucket, testCaseCounts, statusCount);
+            }
+        }
+        bucket.setTestCaseCounts(new ArrayList<>(testCaseCounts.values()));
+    }
+
+    private static void addSuiteExe(SuiteSummaryBucket bucket, SuiteExeDto suiteExe) {
+        String status = suiteExe.getStatus().toUpperCase();
+        long startTime = suiteExe.getS_start_time();
+        if (bucket.getProjectName() == null) {
+            bucket.setProjectName(suiteExe.getProject_name());
+        }
+        bucket.getHistory().add(suiteExe);
+        bucket.setSuiteCount(bucket.getSuiteCount() + 1);
+        bucket.getSuiteStatusCounts().merge(status, 1L, Long::sum);
+        if (status.equals("ERR")) {
+            bucket.setErrSuiteCount(bucket.getErrSuiteCount() + 1);
+        }
+        if (suiteExe.getClassificationDetails() != null
+                && suiteExe.getClassificationDetails().getClassification() != null
+                && suiteExe.getClassificationDetails().isChildFalsePostiveStatus()) {
+            bucket.setFalsePositiveSuiteCount(bucket.getFalsePositiveSuiteCount() + 1);
+        }
+        bucket.getLastRuns().add(0, new SuiteRunRef(suiteExe.getS_run_id(), startTime, suiteExe.getStatus()));
+        if (bucket.getLastRuns().size() > LAST_RUNS) {
+            bucket.getLastRuns().remove(LAST_RUNS);
+        }
+    }
+
+    private static void addTestExeCount(SuiteSummaryBucket bucket, Map<String, TestCaseCount> testCaseCounts,
+                                        TestExeStatusCountDto statusCount) {
+        long count = statusCount.getCount();
+        bucket.setTestExeCount(bucket.getTestExeCount() + count);
+        if ("ERR".equals(statusCount.getStatus())) {
+            bucket.setErrTestExeCount(bucket.getErrTestExeCount() + count);
+        }
+        if ("FAIL".equals(statusCount.getStatus())) {
+            bucket.setFailTestExeCount(bucket.getFailTestExeCount() + count);
+        }
+        TestCaseCount testCaseCount = testCaseCounts.computeIfAbsent(statusCount.getName(),
+                name -> new TestCaseCount(name, 0L, 0L));
+        if ("FAIL".equals(statusCount.getStatus()) || "EXE".equals(statusCount.getStatus())) {
+            testCaseCount.setFailCount(testCaseCount.getFailCount() + count);
+        }
+        testCaseCount.setTotalCount(testCaseCount.getTotalCount() + count);
+    }
+
+    /**
+     * Merges next, whose runs all come after the runs of bucket, into bucket.
+     *
+     * @param bucket
+     * @param next
+     */
+    public static void merge(SuiteSummaryBucket bucket, SuiteSummaryBucket next) {
+        if (next.getSuiteCount() == 0) {
+            return;
+        }
+        if (bucket.getSuiteCount() == 0) {
+            bucket.setProjectName(next.getProjectName());
+        }
+        bucket.getHistory().merge(next.getHistory());
+        bucket.setSuiteCount(bucket.getSuiteCount() + next.getSuiteCount());
+        next.getSuiteStatusCounts().forEach((status, count) -> bucket.getSuiteStatusCounts().merge(status, count, Long::sum));
+        bucket.setErrSuiteCount(bucket.getErrSuiteCount() + next.getErrSuiteCount());
+        bucket.setFalsePositiveSuiteCount(bucket.getFalsePositiveSuiteCount() + next.getFalsePositiveSuiteCount());
+
+        List<SuiteRunRef> lastRuns = new ArrayList<>(next.getLastRuns());
+        lastRuns.addAll(bucket.getLastRuns());
+        bucket.setLastRuns(new ArrayList<>(lastRuns.subList(0, Math.min(LAST_RUNS, lastRuns.size()))));
+
+        Map<String, TestCaseCount> testCaseCounts = toMap(bucket.getTestCaseCounts());
+        for (TestCaseCount testCaseCount : next.getTestCaseCounts()) {
+            TestCaseCount merged = testCaseCounts.computeIfAbsent(testCaseCount.getName(),
+                    name -> new TestCaseCount(name, 0L, 0L));
+            merged.setFailCount(merged.getFailCount() + testCaseCount.getFailCount());
+            merged.setTotalCount(merged.getTotalCount() + testCaseCount.getTotalCount());
+        }
+        bucket.setTestCaseCounts(new ArrayList<>(testCaseCounts.values()));
+        bucket.setTestExeCount(bucket.getTestExeCount() + next.getTestExeCount());
+        bucket.setErrTestExeCount(bucket.getErrTestExeCount() + next.getErrTestExeCount());
+        bucket.setFailTestExeCount(bucket.getFailTestExeCount() + next.getFailTestExeCount());
+        bucket.setFalsePositiveTestExeCount(bucket.getFalsePositiveTestExeCount() + next.getFalsePositiveTestExeCount());
+    }
+
+    private static Map<String, TestCaseCount> toMap(List<TestCaseCount> testCaseCounts) {
+        Map<String, TestCaseCount> map = new LinkedHashMap<>();
+        for (TestCaseCount testCaseCount : testCaseCounts) {
+            map.put(testCaseCount.getName(), new TestCaseCount(testCaseCount.getName(), testCaseCount.getFailCount(),
+                    testCaseCount.getTotalCount()));
+        }
+        return map;
+    }
+
+    public static double getBrokenIndex(SuiteSummaryBucket summary) {
+        return summary.getHistory().getBrokenIndex();
+    }
+
+    /**
+     * @return average time in seconds from a failing run to the next passing run
+     */
+    public static long getAverageFixTime(SuiteSummaryBucket summary) {
+        return (long) summary.getHistory().getAverageFixTime();
+    }
+
+    /**
+     * @return seconds since the oldest run after the last PASS, 0 when the last run is a PASS
+     */
+    public static long getDownTime(SuiteSummaryBucket summary) {
+        return summary.getHistory().getDownTime();
+    }
+
+    public static StatusHistogram getStatusHistogram(SuiteSummaryBucket summary) {
+        StatusHistogram statusHistogram = new StatusHistogram();
+        summary.getSuiteStatusCounts().forEach(statusHistogram::add);
+        return statusHistogram;
+    }
+
+    public static Map<String, Long> getCulprit(SuiteSummaryBucket summary) {
+        Map<String, Long> totalCountMap = new HashMap<>();
+        Map<String, Long> failCountMap = new HashMap<>();
+        for (TestCaseCount testCaseCount : summary.getTestCaseCounts()) {
+            totalCountMap.put(testCaseCount.getName(), testCaseCount.getTotalCount());
+            if (testCaseCount.getFailCount() > 0) {
+                failCountMap.put(testCaseCount.getName(), testCaseCount.getFailCount());
+            }
+        }
+        return ReportUtils.culprit(totalCountMap, failCountMap);
+    }
+
+    public static double getScore(SuiteSummaryBucket summary, double brokenIndex, long downTime, long averageFixTime) {
+        long failedSuiteCount = summary.getSuiteStatusCounts().getOrDefault("FAIL", 0L) + summary.getErrSuiteCount();
+        return ReportUtils.getScore(brokenIndex, downTime, averageFixTime, summary.getEnv(), summary.getSuiteCount(),
+                failedSuiteCount, summary.getTestExeCount(),
+                summary.getFailTestExeCount() + summary.getErrTestExeCount());
+    }
+
+    public static double getQAScore(SuiteSummaryBucket summary) {
+        return ReportUtils.getQAScore(summary.getSuiteCount(), summary.getErrSuiteCount(), summary.getFalsePositiveSuiteCount(),
+                summary.getTestExeCount(), summary.getErrTestExeCount(), summary.getFalsePositiveTestExeCount());
+    }
+
+    /**
+     * Drops the stored buckets of reportName and/or pid, or every stored bucket when both are null.
+     *
+     * @param reportName
+     * @param pid
+     * @return number of buckets dropped
+     */
+    public static long deleteBuckets(String reportName, Long pid) {
+        Query query = new Query();
+        if (reportName != null) {
+            query.addCriteria(Criteria.where("reportName").is(reportName));
+        }
+        if (pid != null) {
+            query.addCriteria(Criteria.where("pid").is(pid));
+        }
+        long deleted = mongoOperations.remove(query, SuiteSummaryBucket.class).getDeletedCount();
+        log.info("Suite summary buckets deleted for reportName: {} and pid: {}, count: {}", reportName, pid, deleted);
+        return deleted;
+    }
+
+    private static List<SuiteSummaryBucket> findBuckets(List<String> reportNames, List<Long> pid, List<String> envs, long startTime, long endTime) {
+        Query query = new Query(Criteria.where("reportName").in(reportNames).and("pid").in(pid).and("env").in(envs)
+                .and("bucketStart").gte(startTime).lt(endTime));
+        return mongoOperations.find(query, SuiteSummaryBucket.class);
+    }
+
+    private static void saveBuckets(List<SuiteSummaryBucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, SuiteSummaryBucket.class);
+        for (SuiteSummaryBucket bucket : buckets) {
+            bulkOperations.replaceOne(new Query(Criteria.where("_id").is(bucket.getId())), bucket,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulkOperations.execute();
+        log.info("Stored {} suite summary bucket(s) of report name: {}", buckets.size(), buckets.get(0).getReportName());
+    }
+
+    private static Set<String> getIds(List<SuiteSummaryBucket> buckets) {
+        Set<String> ids = new HashSet<>();
+        for (SuiteSummaryBucket bucket : buckets) {
+            ids.add(bucket.getId());
+        }
+        return ids;
+    }
+
+    private static SuiteSummaryBucket newBucket(Long pid, String reportName, String env, long bucketStart, long bucketEnd) {
+        SuiteSummaryBucket bucket = new SuiteSummaryBucket();
+        bucket.setId(getBucketId(pid, reportName, env, bucketStart));
+        bucket.setPid(pid);
+        bucket.setReportName(reportName);
+        bucket.setEnv(env);
+        bucket.setBucketStart(bucketStart);
+        bucket.setBucketEnd(bucketEnd);
+        return bucket;
+    }
+
+    private static String getBucketId(Long pid, String reportName, String env, long bucketStart) {
+        return pid + ":" + reportName + ":" + env + ":" + bucketStart;
+    }
+
+    private static String getGroupKey(Long pid, String reportName, String env) {
+        return pid + ":" + reportName + ":" + env;
+    }
+
+    /**
+     * Returns the start of the day (server time zone, like the report date filters) of time.
+     */
+    private static long getBucketStart(long time) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Instant.ofEpochMilli(time).atZone(zone).toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static long getBucketEnd(long bucketStart, long endTime) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = Instant.ofEpochMilli(bucketStart).atZone(zone).toLocalDate();
+        return Math.min(day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(), endTime);
+    }
+
+    /**
+     * Returns the start of every day between startTime and endTime, the first one being startTime.
+     */
+    private static List<Long> getBucketStarts(long startTime, long endTime) {
+        List<Long> bucketStarts = new ArrayList<>();
+        for (long bucketStart = startTime; bucketStart < endTime; bucketStart = getBucketEnd(bucketStart, Long.MAX_VALUE)) {
+            bucketStarts.add(bucketStart);
+        }
+        return bucketStarts;
+    }
+
+    /**
+     * Only whole days are stored, so a stored bucket always covers the day its id names.
+     */
+    private static boolean isFullDay(long bucketStart, long bucketEnd) {
+        return bucketStart == getBucketStart(bucketStart) && bucketEnd == getBucketEnd(bucketStart, Long.MAX_VALUE);
+    }
+
+}